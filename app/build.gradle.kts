@@ -1,6 +1,7 @@
 plugins {
     alias(libs.plugins.android.application)
     alias(libs.plugins.google.gms.google.services)
+    alias(libs.plugins.androidx.baselineprofile)
 }
 
 android {
@@ -14,6 +15,8 @@ android {
         versionCode = 1
         versionName = "1.0.0"
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+        // The codec benchmark runs in the app's instrumentation tests, which are debuggable
+        testInstrumentationRunnerArguments["androidx.benchmark.suppressErrors"] = "DEBUGGABLE,EMULATOR"
     }
 
     buildTypes {
@@ -41,6 +44,10 @@ dependencies {
     implementation(libs.androidx.activity)
     implementation(libs.androidx.constraintlayout)
     implementation(libs.androidx.core)
+    implementation(libs.androidx.core.splashscreen)
+    implementation(libs.androidx.startup.runtime)
+    // Installs the bundled baseline profile on devices where the store doesn't
+    implementation(libs.androidx.profileinstaller)
 
     // Google Mobile Ads SDK
     implementation(libs.play.services.ads)
@@ -61,8 +68,12 @@ dependencies {
     implementation(libs.androidx.room.runtime)
     annotationProcessor(libs.androidx.room.compiler)
 
+    // Background Sync
+    implementation(libs.androidx.work.runtime)
+
     // Image Loading
     implementation("com.github.bumptech.glide:glide:4.16.0")
+    implementation(libs.androidx.exifinterface)
 
     // HTTP Client
     implementation(libs.okhttp)
@@ -77,8 +88,11 @@ dependencies {
 
     // RecyclerView
     implementation(libs.androidx.recyclerview)
+    implementation(libs.androidx.asynclayoutinflater)
     //
+    baselineProfile(project(":benchmark"))
     testImplementation(libs.junit)
     androidTestImplementation(libs.androidx.test.ext.junit)
     androidTestImplementation(libs.androidx.test.espresso.core)
+    androidTestImplementation(libs.androidx.benchmark.junit4)
 }
\ No newline at end of file
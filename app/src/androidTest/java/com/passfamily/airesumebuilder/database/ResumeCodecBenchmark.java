@@ -0,0 +1,92 @@
+package com.passfamily.airesumebuilder.database;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+
+import com.passfamily.airesumebuilder.model.Resume;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+/**
+ * Time and allocations of encoding and decoding one resume. The allocation count is
+ * reported next to the time for each test.
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class ResumeCodecBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private static String repeated(String text, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            builder.append(text);
+        }
+        return builder.substring(0, length);
+    }
+
+    // A typical generated resume: short contact fields, a few kilobytes of body text
+    private static Resume sampleResume() {
+        Resume resume = new Resume();
+        resume.setId("resume-1");
+        resume.setUserId("user-1");
+        resume.setResumeName("Backend");
+        resume.setName("Sam Lee");
+        resume.setEmail("sam@example.com");
+        resume.setPhone("+1 555 0100");
+        resume.setGithub("github.com/sam");
+        resume.setLinkedin("linkedin.com/in/sam");
+        resume.setPortfolio("sam.dev");
+        resume.setEducation("BSc Computer Science");
+        resume.setSkills("Java, Kotlin, SQL");
+        resume.setExperience(repeated("Built and ran the billing service. ", 3000));
+        resume.setProjects(repeated("Resume builder with offline sync. ", 1500));
+        resume.setAchievements("Hackathon winner");
+        resume.setCourses("Distributed systems");
+        resume.setGeneratedContent(repeated("SAM LEE\nBackend engineer\n", 6000));
+        return resume;
+    }
+
+    @Test
+    public void encode() {
+        Resume resume = sampleResume();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            ResumeCodec.toMap(resume, false);
+        }
+    }
+
+    @Test
+    public void encodeCompressed() {
+        Resume resume = sampleResume();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            ResumeCodec.toMap(resume, true);
+        }
+    }
+
+    @Test
+    public void decode() {
+        Map<String, Object> map = ResumeCodec.toMap(sampleResume(), false);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            ResumeCodec.fromMap(map);
+        }
+    }
+
+    @Test
+    public void decodeCompressed() {
+        Map<String, Object> map = ResumeCodec.toMap(sampleResume(), true);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            ResumeCodec.fromMap(map);
+        }
+    }
+}
@@ -1,40 +1,79 @@
 package com.passfamily.airesumebuilder.activity;
 
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
+import android.text.TextUtils;
 import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.MotionEvent;
+import android.view.View;
+import android.webkit.MimeTypeMap;
+import android.widget.ImageView;
+import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
-import com.google.android.gms.ads.interstitial.InterstitialAd;
+import com.bumptech.glide.Glide;
 import com.google.android.material.appbar.MaterialToolbar;
+import com.google.android.material.button.MaterialButton;
+import com.google.android.material.progressindicator.LinearProgressIndicator;
 import com.google.android.material.textfield.TextInputEditText;
 import com.passfamily.airesumebuilder.R;
 import com.passfamily.airesumebuilder.database.FirestoreManager;
+import com.passfamily.airesumebuilder.database.ResumeRepository;
 import com.passfamily.airesumebuilder.model.Resume;
 import com.passfamily.airesumebuilder.utils.AdHelper;
 import com.passfamily.airesumebuilder.utils.Constants;
 import com.passfamily.airesumebuilder.utils.KeyboardUtils;
+import com.passfamily.airesumebuilder.utils.StorageHelper;
+import com.passfamily.airesumebuilder.utils.StorageImageLoader;
+import com.passfamily.airesumebuilder.utils.UploadQueue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class EditResumeActivity extends AppCompatActivity {
 
     private TextInputEditText etEditName, etEditEmail, etEditPhone, etEditGithub,
             etEditLinkedin, etEditPortfolio, etEditContent;
     private FirestoreManager firestoreManager;
+    private ResumeRepository resumeRepository;
+    private ImageView ivPhoto;
+    private MaterialButton btnChoosePhoto, btnRemovePhoto;
+    private TextView tvCertificates, tvResumedUploads;
+    private LinearProgressIndicator progressCertificates;
+    private MaterialButton btnAttachCertificates, btnClearCertificates;
+    private StorageHelper storageHelper;
+    private UploadQueue certificateQueue;
+    private final Map<String, Double> resumedUploads = new HashMap<>();
+    private final StorageHelper.ResumedUploadListener resumedUploadListener = new ResumedListener();
     private Resume currentResume;
     private String resumeId;
-    private InterstitialAd interstitialAd;
+    // Storage path of the profile photo, saved with the resume
+    private String photoPath;
+    private boolean photoUploading;
+    // Storage paths of the attached certificates, saved with the resume
+    private final List<String> certificatePaths = new ArrayList<>();
 
     private static final String TAG = "EditResumeActivity";
 
+    private final ActivityResultLauncher<String> photoPicker = registerForActivityResult(
+            new ActivityResultContracts.GetContent(), this::uploadPhoto);
+
+    private final ActivityResultLauncher<String[]> certificatePicker = registerForActivityResult(
+            new ActivityResultContracts.OpenMultipleDocuments(), this::attachCertificates);
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -62,23 +101,6 @@ public class EditResumeActivity extends AppCompatActivity {
         initViews();
         loadResume();
         setupKeyboardBehavior();
-        loadInterstitialAd(); // Load interstitial ad on startup
-    }
-
-    private void loadInterstitialAd() {
-        AdHelper.loadInterstitialAd(this, new AdHelper.InterstitialAdCallback() {
-            @Override
-            public void onAdLoaded(InterstitialAd ad) {
-                interstitialAd = ad;
-                Log.d(TAG, "Interstitial ad loaded successfully");
-            }
-
-            @Override
-            public void onAdFailedToLoad(String error) {
-                interstitialAd = null;
-                Log.e(TAG, "Failed to load interstitial ad: " + error);
-            }
-        });
     }
 
     private void setupToolbar() {
@@ -97,8 +119,36 @@ public class EditResumeActivity extends AppCompatActivity {
         etEditLinkedin = findViewById(R.id.etEditLinkedin);
         etEditPortfolio = findViewById(R.id.etEditPortfolio);
         etEditContent = findViewById(R.id.etEditContent);
-
-        firestoreManager = new FirestoreManager();
+        ivPhoto = findViewById(R.id.ivPhoto);
+        btnChoosePhoto = findViewById(R.id.btnChoosePhoto);
+        btnRemovePhoto = findViewById(R.id.btnRemovePhoto);
+        tvCertificates = findViewById(R.id.tvCertificates);
+        tvResumedUploads = findViewById(R.id.tvResumedUploads);
+        progressCertificates = findViewById(R.id.progressCertificates);
+        btnAttachCertificates = findViewById(R.id.btnAttachCertificates);
+        btnClearCertificates = findViewById(R.id.btnClearCertificates);
+
+        firestoreManager = new FirestoreManager(this);
+        resumeRepository = ResumeRepository.getInstance(this);
+        storageHelper = new StorageHelper(this);
+        certificateQueue = new UploadQueue(this, storageHelper, new CertificateListener());
+
+        // Enabled once the resume is loaded, so its stored files aren't replaced
+        btnChoosePhoto.setEnabled(false);
+        btnRemovePhoto.setEnabled(false);
+        btnChoosePhoto.setOnClickListener(v -> photoPicker.launch("image/*"));
+        btnRemovePhoto.setOnClickListener(v -> {
+            photoPath = null;
+            updatePhoto();
+        });
+        btnAttachCertificates.setEnabled(false);
+        btnClearCertificates.setEnabled(false);
+        btnAttachCertificates.setOnClickListener(v ->
+                certificatePicker.launch(new String[]{"application/pdf", "image/*"}));
+        btnClearCertificates.setOnClickListener(v -> {
+            certificatePaths.clear();
+            updateCertificates();
+        });
     }
 
     private void setupKeyboardBehavior() {
@@ -116,7 +166,7 @@ public class EditResumeActivity extends AppCompatActivity {
     }
 
     private void loadResume() {
-        firestoreManager.getResumeById(resumeId, new FirestoreManager.FirestoreCallback<Resume>() {
+        resumeRepository.getResumeById(resumeId, new FirestoreManager.FirestoreCallback<Resume>() {
             @Override
             public void onSuccess(Resume resume) {
                 runOnUiThread(() -> {
@@ -134,6 +184,20 @@ public class EditResumeActivity extends AppCompatActivity {
                             etEditContent.setText(currentResume.getGeneratedContent());
                         }
 
+                        photoPath = currentResume.getPhotoPath();
+                        btnChoosePhoto.setEnabled(true);
+                        updatePhoto();
+
+                        if (currentResume.getCertificatePaths() != null) {
+                            for (String path : currentResume.getCertificatePaths().split("\n")) {
+                                if (!path.isEmpty()) {
+                                    certificatePaths.add(path);
+                                }
+                            }
+                        }
+                        btnAttachCertificates.setEnabled(true);
+                        updateCertificates();
+
                         if (getSupportActionBar() != null) {
                             getSupportActionBar().setTitle("Edit - " + currentResume.getResumeName());
                         }
@@ -165,6 +229,11 @@ public class EditResumeActivity extends AppCompatActivity {
             String portfolio = etEditPortfolio.getText() != null ? etEditPortfolio.getText().toString().trim() : "";
             String editedContent = etEditContent.getText() != null ? etEditContent.getText().toString() : "";
 
+            if (photoUploading || !certificateQueue.isIdle()) {
+                Toast.makeText(this, "Wait for the uploads to finish", Toast.LENGTH_SHORT).show();
+                return;
+            }
+
             // Validate required fields
             if (name.isEmpty()) {
                 etEditName.setError("Name is required");
@@ -178,6 +247,9 @@ public class EditResumeActivity extends AppCompatActivity {
                 return;
             }
 
+            // Keep the content being replaced so it can be recorded in the version history
+            String previousContent = currentResume.getGeneratedContent();
+
             // Update the resume object with new values
             currentResume.setName(name);
             currentResume.setEmail(email);
@@ -186,11 +258,14 @@ public class EditResumeActivity extends AppCompatActivity {
             currentResume.setLinkedin(linkedin);
             currentResume.setPortfolio(portfolio);
             currentResume.setGeneratedContent(editedContent);
+            currentResume.setPhotoPath(photoPath);
+            currentResume.setCertificatePaths(certificatePaths.isEmpty()
+                    ? null : TextUtils.join("\n", certificatePaths));
 
             // Show progress message
             Toast.makeText(EditResumeActivity.this, "Saving...", Toast.LENGTH_SHORT).show();
 
-            firestoreManager.updateResume(currentResume, new FirestoreManager.FirestoreCallback<Void>() {
+            resumeRepository.updateResume(currentResume, new FirestoreManager.FirestoreCallback<Void>() {
                 // inside onSuccess() of updateResume()
                 @Override
                 public void onSuccess(Void result) {
@@ -198,6 +273,10 @@ public class EditResumeActivity extends AppCompatActivity {
                         Toast.makeText(EditResumeActivity.this,
                                 "Resume saved successfully!", Toast.LENGTH_SHORT).show();
 
+                        if (!editedContent.equals(previousContent)) {
+                            saveVersion(previousContent);
+                        }
+
                         Intent resultIntent = new Intent();
                         resultIntent.putExtra(Constants.EXTRA_RESUME_ID, resumeId);
                         setResult(RESULT_OK, resultIntent);
@@ -217,25 +296,196 @@ public class EditResumeActivity extends AppCompatActivity {
         }
     }
 
-    private void showInterstitialAndFinish() {
-        if (interstitialAd != null) {
-            AdHelper.showInterstitialAd(this, interstitialAd,
-                    new AdHelper.InterstitialAdShowCallback() {
-                        @Override
-                        public void onAdDismissed() {
-                            finish();
-                        }
+    /**
+     * Upload the picked photo, shrunk to header size; it shows in the PDF once saved
+     */
+    private void uploadPhoto(Uri uri) {
+        if (uri == null) {
+            return;
+        }
 
-                        @Override
-                        public void onAdFailedToShow(String error) {
-                            finish();
-                        }
-                    });
+        photoUploading = true;
+        btnChoosePhoto.setEnabled(false);
+        btnChoosePhoto.setText("Uploading...");
+        storageHelper.uploadProfilePhoto(uri, new StorageHelper.UploadCallback() {
+            @Override
+            public void onSuccess(String downloadUrl) {
+                photoPath = StorageHelper.pathOf(downloadUrl);
+                onPhotoUploadFinished();
+            }
+
+            @Override
+            public void onError(String error) {
+                Toast.makeText(EditResumeActivity.this, "Photo upload failed: " + error, Toast.LENGTH_SHORT).show();
+                onPhotoUploadFinished();
+            }
+
+            @Override
+            public void onProgress(double progress) {
+            }
+        });
+    }
+
+    private void onPhotoUploadFinished() {
+        photoUploading = false;
+        btnChoosePhoto.setEnabled(true);
+        btnChoosePhoto.setText("Choose Photo");
+        updatePhoto();
+    }
+
+    private void updatePhoto() {
+        if (isDestroyed()) {
+            return;
+        }
+        if (photoPath != null && !photoPath.isEmpty()) {
+            StorageImageLoader.load(ivPhoto, photoPath);
+            btnRemovePhoto.setEnabled(true);
         } else {
-            finish();
+            Glide.with(ivPhoto).clear(ivPhoto);
+            ivPhoto.setImageResource(R.drawable.ic_person_placeholder);
+            btnRemovePhoto.setEnabled(false);
+        }
+    }
+
+    /**
+     * Upload the picked files, a few at a time; each one is added as soon as it is stored
+     */
+    private void attachCertificates(List<Uri> uris) {
+        if (uris == null || uris.isEmpty()) {
+            return;
         }
+
+        List<String> extensions = new ArrayList<>(uris.size());
+        for (Uri uri : uris) {
+            try {
+                // Keep read access so an interrupted upload can resume after a restart
+                getContentResolver().takePersistableUriPermission(uri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+            } catch (SecurityException e) {
+                Log.w(TAG, "No persistable permission for " + uri);
+            }
+            String extension = MimeTypeMap.getSingleton().getExtensionFromMimeType(getContentResolver().getType(uri));
+            extensions.add(extension != null ? extension : "pdf");
+        }
+
+        progressCertificates.setVisibility(View.VISIBLE);
+        certificateQueue.addAll(uris, extensions);
+    }
+
+    private void updateCertificates() {
+        int count = certificatePaths.size();
+        tvCertificates.setText(count == 0 ? "No certificates attached"
+                : count == 1 ? "1 certificate attached" : count + " certificates attached");
+        btnClearCertificates.setEnabled(count > 0);
+    }
+
+    private class CertificateListener implements UploadQueue.Listener {
+        @Override
+        public void onProgress(double progress) {
+            progressCertificates.setProgressCompat((int) progress, true);
+        }
+
+        @Override
+        public void onItemUploaded(Uri fileUri, String downloadUrl) {
+            String path = StorageHelper.pathOf(downloadUrl);
+            if (!certificatePaths.contains(path)) {
+                certificatePaths.add(path);
+            }
+            updateCertificates();
+        }
+
+        @Override
+        public void onItemFailed(Uri fileUri, String error) {
+            Log.e(TAG, "Certificate upload failed: " + error);
+        }
+
+        @Override
+        public void onComplete(int uploaded, int failed) {
+            progressCertificates.setVisibility(View.GONE);
+            if (failed > 0) {
+                Toast.makeText(EditResumeActivity.this,
+                        failed + " certificate(s) could not be uploaded", Toast.LENGTH_SHORT).show();
+            }
+        }
+    }
+
+    // Uploads carried over from an earlier run. They don't record which resume they were for,
+    // so they are only reported here and not attached.
+    private class ResumedListener implements StorageHelper.ResumedUploadListener {
+        @Override
+        public void onResumedProgress(String storagePath, double progress) {
+            resumedUploads.put(storagePath, progress);
+            updateResumedUploads();
+        }
+
+        @Override
+        public void onResumedFinished(String storagePath, String downloadUrl) {
+            resumedUploads.remove(storagePath);
+            updateResumedUploads();
+            Toast.makeText(EditResumeActivity.this, "Earlier upload finished", Toast.LENGTH_SHORT).show();
+        }
+
+        @Override
+        public void onResumedFailed(String storagePath, String error) {
+            resumedUploads.remove(storagePath);
+            updateResumedUploads();
+            Toast.makeText(EditResumeActivity.this, "Earlier upload failed: " + error, Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    private void updateResumedUploads() {
+        int count = resumedUploads.size();
+        if (count == 0) {
+            tvResumedUploads.setVisibility(View.GONE);
+            return;
+        }
+        double total = 0;
+        for (double progress : resumedUploads.values()) {
+            total += progress;
+        }
+        tvResumedUploads.setText((count == 1 ? "Finishing 1 earlier upload" : "Finishing " + count + " earlier uploads")
+                + " (" + (int) (total / count) + "%)");
+        tvResumedUploads.setVisibility(View.VISIBLE);
+    }
+
+    private void saveVersion(String previousContent) {
+        firestoreManager.saveResumeVersion(currentResume, previousContent, new FirestoreManager.FirestoreCallback<Integer>() {
+            @Override
+            public void onSuccess(Integer version) {
+                Log.d(TAG, "Resume version saved: " + version);
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.e(TAG, "Failed to save resume version: " + error);
+            }
+        });
     }
 
+    private void showInterstitialAndFinish() {
+        AdHelper.showInterstitialAd(this, this::finish);
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        StorageHelper.addResumedUploadListener(resumedUploadListener);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        StorageHelper.removeResumedUploadListener(resumedUploadListener);
+        resumedUploads.clear();
+        updateResumedUploads();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (certificateQueue != null) {
+            certificateQueue.cancel();
+        }
+    }
 
     @Override
     public boolean dispatchTouchEvent(MotionEvent event) {
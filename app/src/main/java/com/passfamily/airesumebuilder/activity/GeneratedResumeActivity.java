@@ -6,10 +6,6 @@ import android.content.pm.PackageManager;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
-import android.text.SpannableString;
-import android.text.Spanned;
-import android.text.method.LinkMovementMethod;
-import android.text.style.URLSpan;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.widget.Button;
@@ -27,10 +23,14 @@ import androidx.core.content.FileProvider;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.gms.ads.AdView;
 import com.passfamily.airesumebuilder.R;
+import com.passfamily.airesumebuilder.adapter.ResumeContentAdapter;
 import com.passfamily.airesumebuilder.database.FirestoreManager;
+import com.passfamily.airesumebuilder.database.ResumeRepository;
 import com.passfamily.airesumebuilder.model.Resume;
 import com.passfamily.airesumebuilder.utils.AdHelper;
 import com.passfamily.airesumebuilder.utils.Constants;
@@ -40,10 +40,11 @@ import java.io.File;
 
 public class GeneratedResumeActivity extends AppCompatActivity {
 
-    private TextView tvGeneratedResume;
+    private RecyclerView rvGeneratedResume;
+    private ResumeContentAdapter contentAdapter;
     private Button btnEdit, btnDownload;
 
-    private FirestoreManager firestoreManager;
+    private ResumeRepository resumeRepository;
     private Resume currentResume;
     private String resumeId;
     private String lastGeneratedPdfPath;
@@ -112,14 +113,15 @@ public class GeneratedResumeActivity extends AppCompatActivity {
     }
 
     private void initViews() {
-        tvGeneratedResume = findViewById(R.id.tvGeneratedResume);
+        rvGeneratedResume = findViewById(R.id.rvGeneratedResume);
         btnEdit = findViewById(R.id.btnEdit);
         btnDownload = findViewById(R.id.btnDownload);
-        firestoreManager = new FirestoreManager();
+        resumeRepository = ResumeRepository.getInstance(this);
 
-        tvGeneratedResume.setMovementMethod(LinkMovementMethod.getInstance());
-        tvGeneratedResume.setHorizontallyScrolling(false);
-        tvGeneratedResume.setSingleLine(false);
+        contentAdapter = new ResumeContentAdapter();
+        rvGeneratedResume.setLayoutManager(new LinearLayoutManager(this));
+        rvGeneratedResume.setHasFixedSize(true);
+        rvGeneratedResume.setAdapter(contentAdapter);
     }
 
     private void setupClickListeners() {
@@ -164,39 +166,13 @@ public class GeneratedResumeActivity extends AppCompatActivity {
     }
 
     private void loadResume() {
-        firestoreManager.getResumeById(resumeId, new FirestoreManager.FirestoreCallback<Resume>() {
+        resumeRepository.getResumeById(resumeId, new FirestoreManager.FirestoreCallback<Resume>() {
             @Override
             public void onSuccess(Resume resume) {
                 runOnUiThread(() -> {
                     currentResume = resume;
                     if (currentResume != null && currentResume.getGeneratedContent() != null) {
-                        String content = currentResume.getGeneratedContent();
-
-                        SpannableString spannableContent = new SpannableString(content);
-                        String[] words = content.split("\\s+");
-                        int currentIndex = 0;
-
-                        for (String word : words) {
-                            int start = content.indexOf(word, currentIndex);
-                            if (start >= 0) {
-                                int end = start + word.length();
-
-                                if (isUrl(word)) {
-                                    String url = word;
-                                    if (!url.startsWith("http://") && !url.startsWith("https://")) {
-                                        url = "https://" + url;
-                                    }
-                                    spannableContent.setSpan(new URLSpan(url), start, end, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
-                                } else if (word.contains("@") && word.contains(".")) {
-                                    spannableContent.setSpan(new URLSpan("mailto:" + word), start, end, Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
-                                }
-
-                                currentIndex = end;
-                            }
-                        }
-
-                        tvGeneratedResume.setText(spannableContent);
-
+                        contentAdapter.setContent(currentResume.getGeneratedContent());
                     } else {
                         Toast.makeText(GeneratedResumeActivity.this, "Resume not found", Toast.LENGTH_SHORT).show();
                         finish();
@@ -214,11 +190,6 @@ public class GeneratedResumeActivity extends AppCompatActivity {
         });
     }
 
-    private boolean isUrl(String text) {
-        return text.contains(".com") || text.contains(".org") || text.contains(".net") ||
-                text.contains(".in") || text.contains("github.com") || text.contains("linkedin.com");
-    }
-
     private void downloadPDF() {
         if (currentResume != null) {
             Toast.makeText(this, "Generating PDF...", Toast.LENGTH_SHORT).show();
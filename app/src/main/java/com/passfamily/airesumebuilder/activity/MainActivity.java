@@ -2,7 +2,10 @@ package com.passfamily.airesumebuilder.activity;
 
 import android.app.AlertDialog;
 import android.content.Intent;
+import android.content.SharedPreferences;
 import android.net.Uri;import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.util.Log;
 import android.view.MenuItem;
 import android.view.View;
@@ -25,16 +28,25 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.gms.ads.AdView;
-import com.google.android.gms.ads.interstitial.InterstitialAd;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.auth.FirebaseAuth;
 import com.passfamily.airesumebuilder.R;
 import com.passfamily.airesumebuilder.adapter.ResumeListAdapter;
+import com.passfamily.airesumebuilder.adapter.ResumeListEngine;
+import com.passfamily.airesumebuilder.adapter.ResumeListItem;
 import com.passfamily.airesumebuilder.database.FirestoreManager;
+import com.passfamily.airesumebuilder.database.ResumeListSnapshot;
+import com.passfamily.airesumebuilder.database.ResumeRepository;
+import com.passfamily.airesumebuilder.database.ResumeSearchResult;
+import com.passfamily.airesumebuilder.database.StorageSweepWorker;
+import com.passfamily.airesumebuilder.database.SyncWorker;
 import com.passfamily.airesumebuilder.model.Resume;
 import com.passfamily.airesumebuilder.utils.AdHelper;
 import com.passfamily.airesumebuilder.utils.Constants;
+import com.passfamily.airesumebuilder.utils.StartupOrchestrator;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class MainActivity extends AppCompatActivity {
@@ -42,24 +54,34 @@ public class MainActivity extends AppCompatActivity {
     private RecyclerView resumeRecyclerView;
     private TextView emptyView, tvMonthlyLimit, tvResetInfo;
     private ResumeListAdapter adapter;
+    private ResumeListEngine listEngine;
+    private SharedPreferences listPrefs;
     private FirestoreManager firestoreManager;
+    private ResumeRepository resumeRepository;
     private FirebaseAuth mAuth;
     private AdView bannerAdView;
     private FloatingActionButton fabAddResume;
     private ProgressBar progressBarLimit;
-    private InterstitialAd interstitialAd;
+    private TextInputEditText etSearch;
+    private String currentSearchQuery = "";
+    // Query whose full-text results are on screen
+    private String searchResultsQuery;
+    private List<Resume> lastLoadedResumes;
+    private FirestoreManager.MonthlyLimitInfo lastLimitInfo;
+    private boolean reportedFullyDrawn;
 
     private static final String TAG = "MainActivity";
     private static final int MAX_MONTHLY_RESUMES = 3;
+    private static final String PREFS_RESUME_LIST = "resume_list";
+    private static final String KEY_SORT_ORDER = "sort_order";
+    private static final String KEY_GROUP_BY_MONTH = "group_by_month";
 
     private ActivityResultLauncher<Intent> resumeFormLauncher = registerForActivityResult(
             new ActivityResultContracts.StartActivityForResult(),
             result -> {
                 if (result.getResultCode() == RESULT_OK) {
-                    loadResumes();
+                    // The list reloads in onResume, which runs right after this
                     checkMonthlyLimit(); // Refresh limit after creating resume
-                    // Reload interstitial ad for next time
-                    loadInterstitialAd();
                 }
             }
     );
@@ -78,33 +100,59 @@ public class MainActivity extends AppCompatActivity {
         });
 
         mAuth = FirebaseAuth.getInstance();
-        firestoreManager = new FirestoreManager();
-
-        // Initialize Mobile Ads
-        AdHelper.initializeMobileAds(this);
 
         setupViews();
         setupRecyclerView();
+
+        // Draw the last known list before the database and network are set up
+        showSnapshot();
+
+        firestoreManager = new FirestoreManager(this);
+        resumeRepository = ResumeRepository.getInstance(this);
+
+        // Keep the local resume store in sync while the app is not open
+        SyncWorker.schedule(this);
+        // Clear out uploaded files no resume uses any more
+        StorageSweepWorker.schedule(this);
+
         loadResumes();
         checkMonthlyLimit();
-        loadBannerAd();
-        loadInterstitialAd(); // Load interstitial ad on startup
+        // The ads SDK is initialized after the first frame, see AdsInitializer
+        AdHelper.whenInitialized(() -> {
+            if (!isDestroyed()) {
+                loadBannerAd();
+            }
+        });
     }
 
-    private void loadInterstitialAd() {
-        AdHelper.loadInterstitialAd(this, new AdHelper.InterstitialAdCallback() {
-            @Override
-            public void onAdLoaded(InterstitialAd ad) {
-                interstitialAd = ad;
-                Log.d(TAG, "Interstitial ad loaded successfully");
-            }
+    private void showSnapshot() {
+        if (mAuth.getCurrentUser() == null) {
+            return;
+        }
 
-            @Override
-            public void onAdFailedToLoad(String error) {
-                interstitialAd = null;
-                Log.e(TAG, "Failed to load interstitial ad: " + error);
-            }
-        });
+        ResumeListSnapshot.Data snapshot = StartupOrchestrator.takeSnapshot(this, mAuth.getCurrentUser().getUid());
+        if (snapshot == null) {
+            return;
+        }
+
+        Log.d(TAG, "Rendering " + snapshot.resumes.size() + " resumes from snapshot");
+        if (!snapshot.resumes.isEmpty()) {
+            // Bound before the first frame: the adapter has no list yet, so it takes this one without a diff
+            bindListItems(ResumeListEngine.buildNow(snapshot.resumes, getSortOrder(),
+                    listPrefs.getBoolean(KEY_GROUP_BY_MONTH, false)));
+            listEngine.setResumes(snapshot.resumes);
+        }
+        if (snapshot.limitInfo != null) {
+            lastLimitInfo = snapshot.limitInfo;
+            updateMonthlyLimitUI(snapshot.limitInfo);
+        }
+    }
+
+    private void writeSnapshot() {
+        if (mAuth.getCurrentUser() == null || lastLoadedResumes == null) {
+            return;
+        }
+        ResumeListSnapshot.writeAsync(this, mAuth.getCurrentUser().getUid(), lastLoadedResumes, lastLimitInfo);
     }
 
     private void setupViews() {
@@ -156,14 +204,85 @@ public class MainActivity extends AppCompatActivity {
 
         ImageButton btnSettings = findViewById(R.id.btnSettings);
         btnSettings.setOnClickListener(this::showSettingsMenu);
+
+        etSearch = findViewById(R.id.etSearch);
+        etSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                searchResumes(s.toString().trim());
+            }
+        });
+    }
+
+    private void searchResumes(String query) {
+        currentSearchQuery = query;
+        if (mAuth.getCurrentUser() == null) {
+            return;
+        }
+        // Name matches show instantly from memory; full-text results replace them when ready
+        listEngine.setFilterPrefix(query);
+        if (query.isEmpty()) {
+            return;
+        }
+
+        resumeRepository.searchResumes(mAuth.getCurrentUser().getUid(), query,
+                new FirestoreManager.FirestoreCallback<List<ResumeSearchResult>>() {
+                    @Override
+                    public void onSuccess(List<ResumeSearchResult> results) {
+                        // Drop results for a query the user has already typed past
+                        if (!query.equals(currentSearchQuery)) {
+                            return;
+                        }
+                        searchResultsQuery = query;
+                        resumeRecyclerView.setVisibility(results.isEmpty() ? View.GONE : View.VISIBLE);
+                        emptyView.setVisibility(results.isEmpty() ? View.VISIBLE : View.GONE);
+                        adapter.showSearchResults(results);
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        Log.e(TAG, "Search error: " + error);
+                    }
+                });
     }
 
     private void showSettingsMenu(View v) {
         PopupMenu popup = new PopupMenu(this, v);
         popup.getMenuInflater().inflate(R.menu.main_menu, popup.getMenu());
+
+        ResumeListEngine.SortOrder sortOrder = getSortOrder();
+        int checkedSortId = sortOrder == ResumeListEngine.SortOrder.NAME ? R.id.action_sort_name
+                : sortOrder == ResumeListEngine.SortOrder.CREATED ? R.id.action_sort_created
+                : R.id.action_sort_updated;
+        popup.getMenu().findItem(checkedSortId).setChecked(true);
+        popup.getMenu().findItem(R.id.action_group_by_month)
+                .setChecked(listPrefs.getBoolean(KEY_GROUP_BY_MONTH, false));
+
         popup.setOnMenuItemClickListener(item -> {
             int itemId = item.getItemId();
-            if (itemId == R.id.action_privacy_policy) {
+            if (itemId == R.id.action_sort_updated) {
+                setSortOrder(ResumeListEngine.SortOrder.UPDATED);
+                return true;
+            } else if (itemId == R.id.action_sort_created) {
+                setSortOrder(ResumeListEngine.SortOrder.CREATED);
+                return true;
+            } else if (itemId == R.id.action_sort_name) {
+                setSortOrder(ResumeListEngine.SortOrder.NAME);
+                return true;
+            } else if (itemId == R.id.action_group_by_month) {
+                boolean group = !item.isChecked();
+                listPrefs.edit().putBoolean(KEY_GROUP_BY_MONTH, group).apply();
+                listEngine.setGroupByMonth(group);
+                return true;
+            } else if (itemId == R.id.action_privacy_policy) {
                 openPrivacyPolicy();
                 return true;
             } else if (itemId == R.id.action_logout) {
@@ -175,6 +294,20 @@ public class MainActivity extends AppCompatActivity {
         popup.show();
     }
 
+    private ResumeListEngine.SortOrder getSortOrder() {
+        String name = listPrefs.getString(KEY_SORT_ORDER, ResumeListEngine.SortOrder.UPDATED.name());
+        try {
+            return ResumeListEngine.SortOrder.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return ResumeListEngine.SortOrder.UPDATED;
+        }
+    }
+
+    private void setSortOrder(ResumeListEngine.SortOrder order) {
+        listPrefs.edit().putString(KEY_SORT_ORDER, order.name()).apply();
+        listEngine.setSortOrder(order);
+    }
+
     private void openPrivacyPolicy() {
         // IMPORTANT: Replace with your actual privacy policy URL
         String url = "https://ai-resume-builder-privacy-policy.vercel.app/";
@@ -187,26 +320,8 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void showInterstitialAndOpenForm() {
-        if (interstitialAd != null) {
-            AdHelper.showInterstitialAd(this, interstitialAd, new AdHelper.InterstitialAdShowCallback() {
-                @Override
-                public void onAdDismissed() {
-                    // Ad was shown and dismissed, now open the form
-                    openResumeForm();
-                }
-
-                @Override
-                public void onAdFailedToShow(String error) {
-                    // Ad failed to show, still open the form
-                    Log.e(TAG, "Failed to show interstitial ad: " + error);
-                    openResumeForm();
-                }
-            });
-        } else {
-            // No ad loaded, directly open the form
-            Log.d(TAG, "No interstitial ad available, opening form directly");
-            openResumeForm();
-        }
+        // Opens the form straight away if no ad is ready
+        AdHelper.showInterstitialAd(this, this::openResumeForm);
     }
 
     private void openResumeForm() {
@@ -232,6 +347,8 @@ public class MainActivity extends AppCompatActivity {
                 runOnUiThread(() -> {
                     progressBarLimit.setVisibility(View.GONE);
                     updateMonthlyLimitUI(info);
+                    lastLimitInfo = info;
+                    writeSnapshot();
                     Log.d(TAG, "Monthly limit count: " + info.getCount() + ", Days remaining: " + info.getDaysRemaining());
                 });
             }
@@ -309,7 +426,18 @@ public class MainActivity extends AppCompatActivity {
     private void setupRecyclerView() {
         adapter = new ResumeListAdapter(this);
         resumeRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        // The list fills the space below the app bar, so row changes never resize it
+        resumeRecyclerView.setHasFixedSize(true);
+        resumeRecyclerView.setItemViewCacheSize(4);
+        resumeRecyclerView.getRecycledViewPool().setMaxRecycledViews(0, ResumeListAdapter.POOL_SIZE);
         resumeRecyclerView.setAdapter(adapter);
+        getLifecycle().addObserver(adapter);
+        adapter.preinflate(resumeRecyclerView, ResumeListAdapter.POOL_SIZE);
+
+        listPrefs = getSharedPreferences(PREFS_RESUME_LIST, MODE_PRIVATE);
+        listEngine = new ResumeListEngine(this::showListItems);
+        listEngine.setSortOrder(getSortOrder());
+        listEngine.setGroupByMonth(listPrefs.getBoolean(KEY_GROUP_BY_MONTH, false));
 
         adapter.setOnItemClickListener(resume -> {
             Intent intent = new Intent(MainActivity.this, GeneratedResumeActivity.class);
@@ -331,36 +459,100 @@ public class MainActivity extends AppCompatActivity {
         String userId = mAuth.getCurrentUser().getUid();
         Log.d(TAG, "Loading resumes for user: " + userId);
 
-        firestoreManager.getAllResumesForUser(userId, new FirestoreManager.FirestoreCallback<List<Resume>>() {
+        // Local copy renders immediately, the Firestore sync updates it afterwards
+        resumeRepository.getAllResumesForUser(userId, new FirestoreManager.FirestoreCallback<List<Resume>>() {
             @Override
             public void onSuccess(List<Resume> resumes) {
-                Log.d(TAG, "Successfully loaded " + resumes.size() + " resumes");
-                runOnUiThread(() -> {
-                    if (resumes.isEmpty()) {
-                        Log.d(TAG, "No resumes found, showing empty view");
-                        resumeRecyclerView.setVisibility(View.GONE);
-                        emptyView.setVisibility(View.VISIBLE);
-                    } else {
-                        Log.d(TAG, "Resumes found, updating adapter");
-                        resumeRecyclerView.setVisibility(View.VISIBLE);
-                        emptyView.setVisibility(View.GONE);
-                        adapter.updateResumes(resumes);
-                    }
-                });
+                Log.d(TAG, "Loaded " + resumes.size() + " resumes from local storage");
+                showResumes(resumes);
             }
 
             @Override
             public void onError(String error) {
-                Log.e(TAG, "Error loading resumes: " + error);
-                runOnUiThread(() -> {
-                    Toast.makeText(MainActivity.this, "Error: " + error, Toast.LENGTH_LONG).show();
-                    resumeRecyclerView.setVisibility(View.GONE);
-                    emptyView.setVisibility(View.VISIBLE);
-                });
+                Log.e(TAG, "Error loading local resumes: " + error);
+            }
+        });
+
+        resumeRepository.refreshResumes(userId, new FirestoreManager.FirestoreCallback<List<Resume>>() {
+            @Override
+            public void onSuccess(List<Resume> resumes) {
+                Log.d(TAG, "Successfully synced " + resumes.size() + " resumes");
+                showResumes(resumes);
+            }
+
+            @Override
+            public void onError(String error) {
+                // Keep showing the local copy when offline
+                Log.e(TAG, "Error syncing resumes: " + error);
+            }
+        });
+    }
+
+    private void showResumes(List<Resume> resumes) {
+        runOnUiThread(() -> {
+            lastLoadedResumes = resumes;
+            writeSnapshot();
+            listEngine.setResumes(resumes);
+
+            if (!currentSearchQuery.isEmpty()) {
+                // Keep the search results on screen, refresh them against the new data
+                searchResumes(currentSearchQuery);
             }
         });
     }
 
+    /**
+     * Keep the snapshot and any search results in step with a single edit that was already
+     * applied to the list engine, without reloading and syncing the whole list
+     *
+     * @param resume the new version, or null if it was deleted
+     */
+    private void onResumeChangedLocally(String resumeId, Resume resume) {
+        if (lastLoadedResumes != null) {
+            List<Resume> updated = new ArrayList<>(lastLoadedResumes.size());
+            for (Resume loaded : lastLoadedResumes) {
+                if (!loaded.getId().equals(resumeId)) {
+                    updated.add(loaded);
+                } else if (resume != null) {
+                    updated.add(resume);
+                }
+            }
+            lastLoadedResumes = updated;
+            writeSnapshot();
+        }
+
+        if (!currentSearchQuery.isEmpty()) {
+            searchResumes(currentSearchQuery);
+        }
+    }
+
+    private void showListItems(String filterPrefix, List<ResumeListItem> items) {
+        // Ignore rows for an older query, and don't replace full-text results with name matches
+        if (!filterPrefix.equals(currentSearchQuery)
+                || (!filterPrefix.isEmpty() && filterPrefix.equals(searchResultsQuery))) {
+            return;
+        }
+        bindListItems(items);
+    }
+
+    private void bindListItems(List<ResumeListItem> items) {
+        if (items.isEmpty()) {
+            Log.d(TAG, "No resumes found, showing empty view");
+            resumeRecyclerView.setVisibility(View.GONE);
+            emptyView.setVisibility(View.VISIBLE);
+        } else {
+            resumeRecyclerView.setVisibility(View.VISIBLE);
+            emptyView.setVisibility(View.GONE);
+        }
+        adapter.submitList(items);
+
+        // Lets startup benchmarks measure time until the list is on screen
+        if (!reportedFullyDrawn) {
+            reportedFullyDrawn = true;
+            reportFullyDrawn();
+        }
+    }
+
     private void showEditResumeNameDialog(Resume resume) {
         AlertDialog.Builder builder = new AlertDialog.Builder(this);
         builder.setTitle("Edit Resume Name");
@@ -373,13 +565,27 @@ public class MainActivity extends AppCompatActivity {
         builder.setPositiveButton("Save", (dialog, which) -> {
             String newName = input.getText().toString().trim();
             if (!newName.isEmpty()) {
-                resume.setResumeName(newName);
-                firestoreManager.updateResume(resume, new FirestoreManager.FirestoreCallback<Void>() {
+                // The list item may come from the snapshot, so rename the full stored record
+                resumeRepository.getResumeById(resume.getId(), new FirestoreManager.FirestoreCallback<Resume>() {
                     @Override
-                    public void onSuccess(Void result) {
-                        runOnUiThread(() -> {
-                            loadResumes();
-                            Toast.makeText(MainActivity.this, "Resume name updated", Toast.LENGTH_SHORT).show();
+                    public void onSuccess(Resume fullResume) {
+                        fullResume.setResumeName(newName);
+                        resumeRepository.updateResume(fullResume, new FirestoreManager.FirestoreCallback<Void>() {
+                            @Override
+                            public void onSuccess(Void result) {
+                                runOnUiThread(() -> {
+                                    listEngine.updateResume(fullResume);
+                                    onResumeChangedLocally(fullResume.getId(), fullResume);
+                                    Toast.makeText(MainActivity.this, "Resume name updated", Toast.LENGTH_SHORT).show();
+                                });
+                            }
+
+                            @Override
+                            public void onError(String error) {
+                                runOnUiThread(() -> {
+                                    Toast.makeText(MainActivity.this, error, Toast.LENGTH_SHORT).show();
+                                });
+                            }
                         });
                     }
 
@@ -402,11 +608,12 @@ public class MainActivity extends AppCompatActivity {
                 .setTitle("Delete Resume")
                 .setMessage("Are you sure you want to delete this resume?")
                 .setPositiveButton("Delete", (dialog, which) -> {
-                    firestoreManager.deleteResume(resume, new FirestoreManager.FirestoreCallback<Void>() {
+                    resumeRepository.deleteResume(resume, new FirestoreManager.FirestoreCallback<Void>() {
                         @Override
                         public void onSuccess(Void result) {
                             runOnUiThread(() -> {
-                                loadResumes();
+                                listEngine.removeResume(resume.getId());
+                                onResumeChangedLocally(resume.getId(), null);
                                 // Note: Deleting doesn't reduce the monthly count
                                 Toast.makeText(MainActivity.this, "Resume deleted", Toast.LENGTH_SHORT).show();
                             });
@@ -429,7 +636,11 @@ public class MainActivity extends AppCompatActivity {
                 .setTitle("Logout")
                 .setMessage("Are you sure you want to logout?")
                 .setPositiveButton("Logout", (dialog, which) -> {
+                    if (mAuth.getCurrentUser() != null) {
+                        resumeRepository.signOut(mAuth.getCurrentUser().getUid());
+                    }
                     mAuth.signOut();
+                    ResumeListSnapshot.clear(this);
                     Intent intent = new Intent(MainActivity.this, LoginActivity.class);
                     intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
                     startActivity(intent);
@@ -462,6 +673,7 @@ public class MainActivity extends AppCompatActivity {
         if (bannerAdView != null) {
             bannerAdView.destroy();
         }
+        listEngine.release();
         super.onDestroy();
     }
 }
@@ -17,21 +17,18 @@ import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 
 import com.google.android.gms.ads.AdView;
-import com.google.android.gms.ads.interstitial.InterstitialAd;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.firebase.auth.FirebaseAuth;
 import com.passfamily.airesumebuilder.R;
 import com.passfamily.airesumebuilder.database.FirestoreManager;
+import com.passfamily.airesumebuilder.database.ResumeRepository;
 import com.passfamily.airesumebuilder.model.Resume;
 import com.passfamily.airesumebuilder.utils.AdHelper;
+import com.passfamily.airesumebuilder.utils.DateFormats;
 import com.passfamily.airesumebuilder.utils.GeminiClient;
 import com.passfamily.airesumebuilder.utils.KeyboardUtils;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
-
 public class ResumeFormActivity extends AppCompatActivity {
 
     private TextInputEditText etName, etEmail, etPhone, etGithub, etLinkedin, etPortfolio;
@@ -41,8 +38,8 @@ public class ResumeFormActivity extends AppCompatActivity {
     private AdView bannerAdView;
 
     private FirestoreManager firestoreManager;
+    private ResumeRepository resumeRepository;
     private GeminiClient geminiClient;
-    private InterstitialAd interstitialAd;
     private FirebaseAuth mAuth;
 
     private static final int MAX_MONTHLY_RESUMES = 3;
@@ -65,12 +62,10 @@ public class ResumeFormActivity extends AppCompatActivity {
         setupKeyboardBehavior();
 
         mAuth = FirebaseAuth.getInstance();
-        firestoreManager = new FirestoreManager();
+        firestoreManager = new FirestoreManager(this);
+        resumeRepository = ResumeRepository.getInstance(this);
         geminiClient = new GeminiClient();
 
-        // Load interstitial ad
-        loadInterstitialAd();
-
         // Load banner ad
         loadBannerAd();
     }
@@ -80,20 +75,6 @@ public class ResumeFormActivity extends AppCompatActivity {
         bannerAdView = AdHelper.loadBannerAd(this, adContainer);
     }
 
-    private void loadInterstitialAd() {
-        AdHelper.loadInterstitialAd(this, new AdHelper.InterstitialAdCallback() {
-            @Override
-            public void onAdLoaded(InterstitialAd ad) {
-                interstitialAd = ad;
-            }
-
-            @Override
-            public void onAdFailedToLoad(String error) {
-                interstitialAd = null;
-            }
-        });
-    }
-
     private void setupToolbar() {
         MaterialToolbar toolbar = findViewById(R.id.toolbar);
         setSupportActionBar(toolbar);
@@ -201,7 +182,7 @@ public class ResumeFormActivity extends AppCompatActivity {
 
                     resume.setGeneratedContent(generatedResume);
 
-                    firestoreManager.insertResume(resume, new FirestoreManager.FirestoreCallback<String>() {
+                    resumeRepository.insertResume(resume, new FirestoreManager.FirestoreCallback<String>() {
                         @Override
                         public void onSuccess(String resumeId) {
                             runOnUiThread(() -> {
@@ -233,21 +214,7 @@ public class ResumeFormActivity extends AppCompatActivity {
     }
 
     private void showInterstitialAndFinish(String resumeId) {
-        if (interstitialAd != null) {
-            AdHelper.showInterstitialAd(this, interstitialAd, new AdHelper.InterstitialAdShowCallback() {
-                @Override
-                public void onAdDismissed() {
-                    navigateToGeneratedResume(resumeId);
-                }
-
-                @Override
-                public void onAdFailedToShow(String error) {
-                    navigateToGeneratedResume(resumeId);
-                }
-            });
-        } else {
-            navigateToGeneratedResume(resumeId);
-        }
+        AdHelper.showInterstitialAd(this, () -> navigateToGeneratedResume(resumeId));
     }
 
     private void navigateToGeneratedResume(String resumeId) {
@@ -289,7 +256,7 @@ public class ResumeFormActivity extends AppCompatActivity {
         Resume resume = new Resume();
         resume.setUserId(FirebaseAuth.getInstance().getCurrentUser().getUid());
 
-        String timestamp = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault()).format(new Date());
+        String timestamp = DateFormats.formatDate(System.currentTimeMillis());
         resume.setResumeName("Resume - " + timestamp);
 
         resume.setName(getText(etName));
@@ -2,53 +2,31 @@ package com.passfamily.airesumebuilder.activity;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
 
-import androidx.activity.EdgeToEdge;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.core.graphics.Insets;
-import androidx.core.view.ViewCompat;
-import androidx.core.view.WindowInsetsCompat;
+import androidx.core.splashscreen.SplashScreen;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseUser;
-import com.passfamily.airesumebuilder.activity.MainActivity;
-import com.passfamily.airesumebuilder.R;
+import com.passfamily.airesumebuilder.utils.StartupOrchestrator;
 
 public class SplashActivity extends AppCompatActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        // Must come before super.onCreate so the splash theme is swapped for the app theme
+        SplashScreen splashScreen = SplashScreen.installSplashScreen(this);
         super.onCreate(savedInstanceState);
 
-        // Hide the action bar/toolbar
-        if (getSupportActionBar() != null) {
-            getSupportActionBar().hide();
-        }
+        // Keep the splash up only until startup is actually ready
+        StartupOrchestrator orchestrator = new StartupOrchestrator(this);
+        splashScreen.setKeepOnScreenCondition(() -> !orchestrator.isReady());
 
-        // Enable edge-to-edge for Android 15+ compatibility
-        EdgeToEdge.enable(this);
-
-        setContentView(R.layout.activity_company_name);
-
-        // Improved edge-to-edge handling
-        ViewCompat.setOnApplyWindowInsetsListener(findViewById(android.R.id.content), (v, insets) -> {
-            Insets systemBars = insets.getInsets(WindowInsetsCompat.Type.systemBars());
-            v.setPadding(systemBars.left, systemBars.top, systemBars.right, systemBars.bottom);
-            return insets;
-        });
-
-        FirebaseAuth mAuth = FirebaseAuth.getInstance();
-        FirebaseUser currentUser = mAuth.getCurrentUser();
-
-        new Handler(Looper.getMainLooper()).postDelayed(() -> {
-            if (currentUser != null) {
+        orchestrator.start(user -> {
+            if (user != null) {
                 startActivity(new Intent(SplashActivity.this, MainActivity.class));
             } else {
                 startActivity(new Intent(SplashActivity.this, LoginActivity.class));
             }
             finish();
-        }, 2000);
+        });
     }
-}
\ No newline at end of file
+}
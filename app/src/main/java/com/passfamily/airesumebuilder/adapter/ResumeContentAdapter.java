@@ -0,0 +1,171 @@
+package com.passfamily.airesumebuilder.adapter;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.method.LinkMovementMethod;
+import android.text.style.URLSpan;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.widget.AppCompatTextView;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.passfamily.airesumebuilder.R;
+import com.passfamily.airesumebuilder.utils.LinkScanner;
+import com.passfamily.airesumebuilder.utils.PDFGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generated resume text as a list of section header and line blocks. Only the blocks
+ * on screen (plus the prefetched ones) are measured, and their text layout is
+ * precomputed on a background thread before the TextView needs it.
+ */
+public class ResumeContentAdapter extends ListAdapter<ResumeContentAdapter.Block, ResumeContentAdapter.BlockViewHolder> {
+
+    public static final int TYPE_SECTION = 0;
+    public static final int TYPE_LINE = 1;
+
+    // Splitting the content and precomputing text both stay off the main thread
+    private static final ExecutorService textExecutor = Executors.newSingleThreadExecutor();
+
+    private static final DiffUtil.ItemCallback<Block> DIFF_CALLBACK = new DiffUtil.ItemCallback<Block>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Block oldItem, @NonNull Block newItem) {
+            return oldItem.index == newItem.index;
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Block oldItem, @NonNull Block newItem) {
+            return oldItem.type == newItem.type && oldItem.source.equals(newItem.source);
+        }
+    };
+
+    public static class Block {
+        final int index;
+        final int type;
+        // Plain line, used for diffing
+        final String source;
+        final CharSequence text;
+
+        // Precomputed text for the params it was made with, reused when the block is bound again
+        private PrecomputedTextCompat.Params params;
+        private Future<PrecomputedTextCompat> precomputed;
+
+        Block(int index, int type, String source, CharSequence text) {
+            this.index = index;
+            this.type = type;
+            this.source = source;
+            this.text = text;
+        }
+    }
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private String currentContent;
+
+    public ResumeContentAdapter() {
+        super(DIFF_CALLBACK);
+    }
+
+    /**
+     * Split the content into blocks on a background thread and show them
+     */
+    public void setContent(String content) {
+        if (content.equals(currentContent)) {
+            return;
+        }
+        currentContent = content;
+
+        textExecutor.execute(() -> {
+            List<Block> blocks = split(content);
+            mainHandler.post(() -> {
+                // A newer content may have been set in the meantime
+                if (content.equals(currentContent)) {
+                    submitList(blocks);
+                }
+            });
+        });
+    }
+
+    static List<Block> split(String content) {
+        List<LinkScanner.Link> links = LinkScanner.scanCached(content);
+        List<Block> blocks = new ArrayList<>();
+        int linkIndex = 0;
+        int lineStart = 0;
+        int index = 0;
+
+        while (lineStart <= content.length()) {
+            int lineEnd = content.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = content.length();
+            }
+            String line = content.substring(lineStart, lineEnd);
+            int type = PDFGenerator.isSectionHeader(line.trim()) ? TYPE_SECTION : TYPE_LINE;
+
+            // Links never span a line break, so the ones in this line come next in order
+            SpannableString spannable = null;
+            while (linkIndex < links.size() && links.get(linkIndex).start < lineEnd) {
+                LinkScanner.Link link = links.get(linkIndex++);
+                if (spannable == null) {
+                    spannable = new SpannableString(line);
+                }
+                spannable.setSpan(new URLSpan(link.url), link.start - lineStart, link.end - lineStart,
+                        Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+            }
+
+            blocks.add(new Block(index++, type, line, spannable != null ? spannable : line));
+            lineStart = lineEnd + 1;
+        }
+        return blocks;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return getItem(position).type;
+    }
+
+    @NonNull
+    @Override
+    public BlockViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        int layout = viewType == TYPE_SECTION ? R.layout.item_resume_section : R.layout.item_resume_line;
+        AppCompatTextView textView = (AppCompatTextView) LayoutInflater.from(parent.getContext())
+                .inflate(layout, parent, false);
+        return new BlockViewHolder(textView);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull BlockViewHolder holder, int position) {
+        holder.bind(getItem(position));
+    }
+
+    static class BlockViewHolder extends RecyclerView.ViewHolder {
+        final AppCompatTextView textView;
+
+        BlockViewHolder(@NonNull AppCompatTextView textView) {
+            super(textView);
+            this.textView = textView;
+            textView.setMovementMethod(LinkMovementMethod.getInstance());
+        }
+
+        void bind(Block block) {
+            PrecomputedTextCompat.Params params = TextViewCompat.getTextMetricsParams(textView);
+            if (block.precomputed == null || !params.equals(block.params)) {
+                block.params = params;
+                block.precomputed = PrecomputedTextCompat.getTextFuture(block.text, params, textExecutor);
+            }
+            // Waits for the background result only if it isn't ready by measure time
+            textView.setTextFuture(block.precomputed);
+        }
+    }
+}
@@ -1,28 +1,105 @@
 package com.passfamily.airesumebuilder.adapter;
 
+import android.content.BroadcastReceiver;
 import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ImageButton;
-import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.asynclayoutinflater.view.AsyncLayoutInflater;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.passfamily.airesumebuilder.R;
+import com.passfamily.airesumebuilder.database.ResumeSearchResult;
+import com.passfamily.airesumebuilder.databinding.ItemResumeBinding;
+import com.passfamily.airesumebuilder.databinding.ItemResumeHeaderBinding;
 import com.passfamily.airesumebuilder.model.Resume;
+import com.passfamily.airesumebuilder.utils.DateFormats;
 
-import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 
-public class ResumeListAdapter extends RecyclerView.Adapter<ResumeListAdapter.ResumeViewHolder> {
+/**
+ * Resume list backed by {@link ListAdapter}. New lists are diffed on a background thread,
+ * and rows whose content changed are rebound only for the parts that differ.
+ * Observe it from the activity's lifecycle so row dates follow locale and time zone changes.
+ */
+public class ResumeListAdapter extends ListAdapter<ResumeListItem, RecyclerView.ViewHolder>
+        implements DefaultLifecycleObserver {
+
+    public static final int VIEW_TYPE_RESUME = 0;
+    public static final int VIEW_TYPE_HEADER = 1;
+
+    // Rows kept for reuse; enough to refill the screen after a fast fling without inflating
+    public static final int POOL_SIZE = 12;
+
+    // Bit flags passed as the change payload
+    private static final int PAYLOAD_NAME = 1;
+    private static final int PAYLOAD_DATE = 1 << 1;
+    private static final int PAYLOAD_SNIPPET = 1 << 2;
+
+    private static final DiffUtil.ItemCallback<ResumeListItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<ResumeListItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ResumeListItem oldItem, @NonNull ResumeListItem newItem) {
+            return oldItem.key.equals(newItem.key);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ResumeListItem oldItem, @NonNull ResumeListItem newItem) {
+            return changes(oldItem, newItem) == 0;
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull ResumeListItem oldItem, @NonNull ResumeListItem newItem) {
+            return changes(oldItem, newItem);
+        }
+
+        private int changes(ResumeListItem oldItem, ResumeListItem newItem) {
+            if (oldItem.isHeader() || newItem.isHeader()) {
+                return TextUtils.equals(oldItem.headerTitle, newItem.headerTitle) ? 0 : PAYLOAD_NAME;
+            }
+            int changes = 0;
+            if (!TextUtils.equals(oldItem.resume.getResumeName(), newItem.resume.getResumeName())) {
+                changes |= PAYLOAD_NAME;
+            }
+            if (oldItem.resume.getUpdatedAt() != newItem.resume.getUpdatedAt()) {
+                changes |= PAYLOAD_DATE;
+            }
+            if (!TextUtils.equals(oldItem.snippetSource, newItem.snippetSource)) {
+                changes |= PAYLOAD_SNIPPET;
+            }
+            return changes;
+        }
+    };
 
     private Context context;
-    private List<Resume> resumes;
+    // Stable ids for the string document ids, assigned the first time an id is seen
+    private final Map<String, Long> stableIds = new HashMap<>();
+    // Rows inflated in the background, taken by onCreateViewHolder before inflating a new one
+    private final Deque<View> preinflatedRows = new ArrayDeque<>();
+    // Locale and time zone the row dates are formatted for
+    private String dateSettingsKey = DateFormats.settingsKey();
+    private final BroadcastReceiver dateSettingsReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            dateSettingsKey = DateFormats.settingsKey();
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_DATE);
+        }
+    };
     private OnItemClickListener onItemClickListener;
     private OnEditNameClickListener onEditNameClickListener;
     private OnDeleteClickListener onDeleteClickListener;
@@ -40,14 +117,20 @@ public class ResumeListAdapter extends RecyclerView.Adapter<ResumeListAdapter.Re
     }
 
     public ResumeListAdapter(Context context) {
+        super(DIFF_CALLBACK);
         this.context = context;
-        this.resumes = new ArrayList<>();
+        setHasStableIds(true);
     }
 
-    public void updateResumes(List<Resume> newResumes) {
-        this.resumes.clear();
-        this.resumes.addAll(newResumes);
-        notifyDataSetChanged();
+    /**
+     * Show search results, with the matching snippet under each resume name
+     */
+    public void showSearchResults(List<ResumeSearchResult> results) {
+        List<ResumeListItem> items = new ArrayList<>(results.size());
+        for (ResumeSearchResult result : results) {
+            items.add(new ResumeListItem(result, dateSettingsKey));
+        }
+        submitList(items);
     }
 
     public void setOnItemClickListener(OnItemClickListener listener) {
@@ -62,69 +145,172 @@ public class ResumeListAdapter extends RecyclerView.Adapter<ResumeListAdapter.Re
         this.onDeleteClickListener = listener;
     }
 
+    @Override
+    public long getItemId(int position) {
+        String id = getItem(position).key;
+        Long stableId = stableIds.get(id);
+        if (stableId == null) {
+            stableId = (long) stableIds.size();
+            stableIds.put(id, stableId);
+        }
+        return stableId;
+    }
+
+    // Registered only while started, so the receiver never outlives the activity
+    @Override
+    public void onStart(@NonNull LifecycleOwner owner) {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_LOCALE_CHANGED);
+        filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        context.registerReceiver(dateSettingsReceiver, filter);
+        // Settings may have changed while stopped
+        String currentKey = DateFormats.settingsKey();
+        if (!currentKey.equals(dateSettingsKey)) {
+            dateSettingsKey = currentKey;
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_DATE);
+        }
+    }
+
+    @Override
+    public void onStop(@NonNull LifecycleOwner owner) {
+        context.unregisterReceiver(dateSettingsReceiver);
+    }
+
+    /**
+     * Inflate rows on a background thread and park them in the pool, so the first
+     * screen and the first fling don't inflate on the main thread
+     */
+    public void preinflate(RecyclerView recyclerView, int count) {
+        RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+        AsyncLayoutInflater inflater = new AsyncLayoutInflater(context);
+        for (int i = 0; i < count; i++) {
+            inflater.inflate(R.layout.item_resume, recyclerView, (view, resId, parent) -> {
+                if (pool.getRecycledViewCount(VIEW_TYPE_RESUME) < POOL_SIZE) {
+                    // Through createViewHolder so the holder gets its view type and is reused
+                    preinflatedRows.add(view);
+                    pool.putRecycledView(createViewHolder(recyclerView, VIEW_TYPE_RESUME));
+                }
+            });
+        }
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return getItem(position).isHeader() ? VIEW_TYPE_HEADER : VIEW_TYPE_RESUME;
+    }
+
     @NonNull
     @Override
-    public ResumeViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(context).inflate(R.layout.item_resume, parent, false);
-        return new ResumeViewHolder(view);
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        LayoutInflater inflater = LayoutInflater.from(context);
+        if (viewType == VIEW_TYPE_HEADER) {
+            return new HeaderViewHolder(ItemResumeHeaderBinding.inflate(inflater, parent, false));
+        }
+        View row = preinflatedRows.poll();
+        return new ResumeViewHolder(row != null
+                ? ItemResumeBinding.bind(row)
+                : ItemResumeBinding.inflate(inflater, parent, false));
     }
 
     @Override
-    public void onBindViewHolder(@NonNull ResumeViewHolder holder, int position) {
-        Resume resume = resumes.get(position);
-        holder.bind(resume);
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        ResumeListItem item = getItem(position);
+        if (holder instanceof HeaderViewHolder) {
+            ((HeaderViewHolder) holder).bind(item);
+        } else {
+            ((ResumeViewHolder) holder).bind(item);
+        }
     }
 
     @Override
-    public int getItemCount() {
-        return resumes.size();
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty() || holder instanceof HeaderViewHolder) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+
+        int changes = 0;
+        for (Object payload : payloads) {
+            changes |= (Integer) payload;
+        }
+        ResumeViewHolder resumeHolder = (ResumeViewHolder) holder;
+        ResumeListItem item = getItem(position);
+        if ((changes & PAYLOAD_NAME) != 0) {
+            resumeHolder.bindName(item);
+        }
+        if ((changes & PAYLOAD_DATE) != 0) {
+            resumeHolder.bindDate(item);
+        }
+        if ((changes & PAYLOAD_SNIPPET) != 0) {
+            resumeHolder.bindSnippet(item);
+        }
+    }
+
+    static class HeaderViewHolder extends RecyclerView.ViewHolder {
+        final ItemResumeHeaderBinding binding;
+
+        HeaderViewHolder(@NonNull ItemResumeHeaderBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+
+        void bind(ResumeListItem item) {
+            binding.tvHeaderTitle.setText(item.headerTitle);
+        }
     }
 
     class ResumeViewHolder extends RecyclerView.ViewHolder {
-        TextView tvResumeName, tvDateTime;
-        ImageButton btnEditName, btnDelete;
+        final ItemResumeBinding binding;
 
-        public ResumeViewHolder(@NonNull View itemView) {
-            super(itemView);
-            tvResumeName = itemView.findViewById(R.id.tvResumeName);
-            tvDateTime = itemView.findViewById(R.id.tvDateTime);
-            btnEditName = itemView.findViewById(R.id.btnEditName);
-            btnDelete = itemView.findViewById(R.id.btnDelete);
+        public ResumeViewHolder(@NonNull ItemResumeBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
 
             itemView.setOnClickListener(v -> {
                 if (onItemClickListener != null) {
-                    int position = getAdapterPosition();
+                    int position = getBindingAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
-                        onItemClickListener.onItemClick(resumes.get(position));
+                        onItemClickListener.onItemClick(getItem(position).resume);
                     }
                 }
             });
 
-            btnEditName.setOnClickListener(v -> {
+            binding.btnEditName.setOnClickListener(v -> {
                 if (onEditNameClickListener != null) {
-                    int position = getAdapterPosition();
+                    int position = getBindingAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
-                        onEditNameClickListener.onEditNameClick(resumes.get(position));
+                        onEditNameClickListener.onEditNameClick(getItem(position).resume);
                     }
                 }
             });
 
-            btnDelete.setOnClickListener(v -> {
+            binding.btnDelete.setOnClickListener(v -> {
                 if (onDeleteClickListener != null) {
-                    int position = getAdapterPosition();
+                    int position = getBindingAdapterPosition();
                     if (position != RecyclerView.NO_POSITION) {
-                        onDeleteClickListener.onDeleteClick(resumes.get(position));
+                        onDeleteClickListener.onDeleteClick(getItem(position).resume);
                     }
                 }
             });
         }
 
-        public void bind(Resume resume) {
-            tvResumeName.setText(resume.getResumeName());
+        public void bind(ResumeListItem item) {
+            bindName(item);
+            bindDate(item);
+            bindSnippet(item);
+        }
+
+        void bindName(ResumeListItem item) {
+            binding.tvResumeName.setText(item.resume.getResumeName());
+        }
+
+        void bindDate(ResumeListItem item) {
+            binding.tvDateTime.setText(item.getDateText(dateSettingsKey));
+        }
 
-            SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy 'at' hh:mm a", Locale.getDefault());
-            String dateTime = sdf.format(new Date(resume.getUpdatedAt()));
-            tvDateTime.setText(dateTime);
+        void bindSnippet(ResumeListItem item) {
+            binding.tvSnippet.setText(item.snippet);
+            binding.tvSnippet.setVisibility(item.snippet != null ? View.VISIBLE : View.GONE);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,323 @@
+package com.passfamily.airesumebuilder.adapter;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.passfamily.airesumebuilder.model.Resume;
+import com.passfamily.airesumebuilder.utils.DateFormats;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Sorts, filters and groups the loaded resume list in memory, so a different order
+ * doesn't need another query. Sort keys are computed once per resume and kept across
+ * updates; a single changed resume is moved with a binary search instead of a full sort.
+ * All work runs on a background thread and results are delivered on the main thread.
+ */
+public class ResumeListEngine {
+    private static final String TAG = "ResumeListEngine";
+
+    public enum SortOrder {
+        UPDATED, CREATED, NAME
+    }
+
+    public interface Listener {
+        /**
+         * @param filterPrefix the filter the rows were built for
+         */
+        void onResult(String filterPrefix, List<ResumeListItem> items);
+    }
+
+    private static final class Entry {
+        final Resume resume;
+        final CollationKey nameKey;
+        // Lower-cased name for prefix matching
+        final String filterKey;
+        final ResumeListItem item;
+
+        Entry(Resume resume, Collator collator, String settingsKey) {
+            String name = resume.getResumeName() != null ? resume.getResumeName() : "";
+            this.resume = resume;
+            this.nameKey = collator.getCollationKey(name);
+            this.filterKey = name.toLowerCase(Locale.getDefault());
+            this.item = new ResumeListItem(resume, settingsKey);
+        }
+    }
+
+    private static final Comparator<Entry> BY_UPDATED = (a, b) -> {
+        int result = Long.compare(b.resume.getUpdatedAt(), a.resume.getUpdatedAt());
+        return result != 0 ? result : a.resume.getId().compareTo(b.resume.getId());
+    };
+
+    private static final Comparator<Entry> BY_CREATED = (a, b) -> {
+        int result = Long.compare(b.resume.getCreatedAt(), a.resume.getCreatedAt());
+        return result != 0 ? result : a.resume.getId().compareTo(b.resume.getId());
+    };
+
+    private static final Comparator<Entry> BY_NAME = (a, b) -> {
+        int result = a.nameKey.compareTo(b.nameKey);
+        return result != 0 ? result : BY_UPDATED.compare(a, b);
+    };
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Listener listener;
+    // Set once the screen is gone: later calls are ignored and nothing more is delivered
+    private volatile boolean released;
+
+    // Everything below is only touched on the executor thread
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, Entry> entriesById = new HashMap<>();
+    private final Calendar calendar = Calendar.getInstance();
+    private Collator collator;
+    private Locale collatorLocale;
+    private String settingsKey;
+    private SortOrder sortOrder = SortOrder.UPDATED;
+    private String filterPrefix = "";
+    private boolean groupByMonth;
+    // Nothing is published until the first list arrives, so options set early don't show an empty list
+    private boolean loaded;
+
+    public ResumeListEngine(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Replace the whole list. Resumes whose name didn't change keep their sort keys.
+     */
+    public void setResumes(List<Resume> resumes) {
+        List<Resume> copy = new ArrayList<>(resumes);
+        run(() -> {
+            checkSettings();
+            List<Entry> newEntries = new ArrayList<>(copy.size());
+            Map<String, Entry> newById = new HashMap<>();
+            for (Resume resume : copy) {
+                Entry entry = entriesById.get(resume.getId());
+                if (entry == null || !isSameForSorting(entry.resume, resume)) {
+                    entry = new Entry(resume, collator, settingsKey);
+                }
+                newEntries.add(entry);
+                newById.put(resume.getId(), entry);
+            }
+            entries.clear();
+            entries.addAll(newEntries);
+            entriesById.clear();
+            entriesById.putAll(newById);
+            loaded = true;
+            sort();
+            publish();
+        });
+    }
+
+    /**
+     * Add or replace one resume and move it to its place without re-sorting the rest
+     */
+    public void updateResume(Resume resume) {
+        run(() -> {
+            checkSettings();
+            Entry old = entriesById.remove(resume.getId());
+            if (old != null) {
+                entries.remove(old);
+            }
+            Entry entry = new Entry(resume, collator, settingsKey);
+            int index = Collections.binarySearch(entries, entry, comparator());
+            entries.add(index < 0 ? -index - 1 : index, entry);
+            entriesById.put(resume.getId(), entry);
+            publish();
+        });
+    }
+
+    public void removeResume(String resumeId) {
+        run(() -> {
+            Entry old = entriesById.remove(resumeId);
+            if (old != null) {
+                entries.remove(old);
+                publish();
+            }
+        });
+    }
+
+    public void setSortOrder(SortOrder order) {
+        run(() -> {
+            checkSettings();
+            sortOrder = order;
+            sort();
+            publish();
+        });
+    }
+
+    /**
+     * Keep only resumes whose name, or a word in it, starts with the prefix
+     */
+    public void setFilterPrefix(String prefix) {
+        run(() -> {
+            filterPrefix = prefix != null ? prefix : "";
+            publish();
+        });
+    }
+
+    /**
+     * Insert a month header between resumes when sorting by date
+     */
+    public void setGroupByMonth(boolean group) {
+        run(() -> {
+            groupByMonth = group;
+            publish();
+        });
+    }
+
+    /**
+     * Rows for the list in the given order, built on the calling thread. Used for the
+     * first frame, which can't wait for the executor; the result matches what the engine
+     * publishes for the same list and options.
+     */
+    public static List<ResumeListItem> buildNow(List<Resume> resumes, SortOrder order, boolean groupByMonth) {
+        Collator collator = Collator.getInstance(Locale.getDefault());
+        collator.setStrength(Collator.SECONDARY);
+        String settingsKey = DateFormats.settingsKey();
+
+        List<Entry> entries = new ArrayList<>(resumes.size());
+        for (Resume resume : resumes) {
+            entries.add(new Entry(resume, collator, settingsKey));
+        }
+        Collections.sort(entries, comparator(order));
+        return buildItems(entries, order, groupByMonth, "", Calendar.getInstance());
+    }
+
+    /**
+     * Stop the engine. Safe to call while callbacks that still use it are in flight.
+     */
+    public void release() {
+        released = true;
+        executor.shutdownNow();
+    }
+
+    private void run(Runnable task) {
+        if (released) {
+            return;
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Released between the check and the call
+        }
+    }
+
+    private boolean isSameForSorting(Resume oldResume, Resume newResume) {
+        return oldResume.getUpdatedAt() == newResume.getUpdatedAt()
+                && oldResume.getCreatedAt() == newResume.getCreatedAt()
+                && equalsNullable(oldResume.getResumeName(), newResume.getResumeName());
+    }
+
+    private static boolean equalsNullable(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * Collation keys and cached date text depend on the locale, so rebuild them if it changed
+     */
+    private void checkSettings() {
+        Locale locale = Locale.getDefault();
+        String currentSettingsKey = DateFormats.settingsKey();
+        if (collator != null && locale.equals(collatorLocale) && currentSettingsKey.equals(settingsKey)) {
+            return;
+        }
+
+        collator = Collator.getInstance(locale);
+        collator.setStrength(Collator.SECONDARY);
+        collatorLocale = locale;
+        settingsKey = currentSettingsKey;
+        calendar.setTimeZone(TimeZone.getDefault());
+
+        List<Entry> rebuilt = new ArrayList<>(entries.size());
+        entriesById.clear();
+        for (Entry entry : entries) {
+            Entry fresh = new Entry(entry.resume, collator, settingsKey);
+            rebuilt.add(fresh);
+            entriesById.put(entry.resume.getId(), fresh);
+        }
+        entries.clear();
+        entries.addAll(rebuilt);
+    }
+
+    private Comparator<Entry> comparator() {
+        return comparator(sortOrder);
+    }
+
+    private static Comparator<Entry> comparator(SortOrder sortOrder) {
+        switch (sortOrder) {
+            case CREATED:
+                return BY_CREATED;
+            case NAME:
+                return BY_NAME;
+            default:
+                return BY_UPDATED;
+        }
+    }
+
+    private void sort() {
+        long start = SystemClock.elapsedRealtime();
+        // TimSort: a list that is already mostly in order sorts in close to linear time
+        Collections.sort(entries, comparator());
+        Log.d(TAG, "Sorted " + entries.size() + " resumes by " + sortOrder
+                + " in " + (SystemClock.elapsedRealtime() - start) + " ms");
+    }
+
+    private void publish() {
+        if (!loaded) {
+            return;
+        }
+        List<ResumeListItem> items = buildItems(entries, sortOrder, groupByMonth, filterPrefix, calendar);
+
+        String resultPrefix = filterPrefix;
+        mainHandler.post(() -> {
+            if (!released) {
+                listener.onResult(resultPrefix, items);
+            }
+        });
+    }
+
+    private static List<ResumeListItem> buildItems(List<Entry> entries, SortOrder sortOrder, boolean groupByMonth,
+                                                   String filterPrefix, Calendar calendar) {
+        String prefix = filterPrefix.toLowerCase(Locale.getDefault());
+        String wordPrefix = " " + prefix;
+        boolean grouped = groupByMonth && sortOrder != SortOrder.NAME;
+
+        List<ResumeListItem> items = new ArrayList<>(entries.size());
+        int lastMonth = -1;
+        for (Entry entry : entries) {
+            if (!prefix.isEmpty() && !entry.filterKey.startsWith(prefix)
+                    && !entry.filterKey.contains(wordPrefix)) {
+                continue;
+            }
+            if (grouped) {
+                long timestamp = sortOrder == SortOrder.CREATED
+                        ? entry.resume.getCreatedAt() : entry.resume.getUpdatedAt();
+                calendar.setTimeInMillis(timestamp);
+                int month = calendar.get(Calendar.YEAR) * 12 + calendar.get(Calendar.MONTH);
+                if (month != lastMonth) {
+                    items.add(ResumeListItem.header("month:" + month,
+                            DateFormats.format(DateFormats.PATTERN_MONTH, timestamp)));
+                    lastMonth = month;
+                }
+            }
+            items.add(entry.item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,76 @@
+package com.passfamily.airesumebuilder.adapter;
+
+import com.passfamily.airesumebuilder.database.ResumeSearchResult;
+import com.passfamily.airesumebuilder.model.Resume;
+import com.passfamily.airesumebuilder.utils.DateFormats;
+
+/**
+ * One row of the resume list: either a resume with its display text and, for search
+ * results, the matching snippet, or a group header. Text is prepared when the data
+ * arrives so binding only sets it.
+ */
+public class ResumeListItem {
+    // Identifies the row across updates: the resume id, or the group key for headers
+    final String key;
+    final Resume resume;
+    final String headerTitle;
+    // Raw snippet with match markers, compared when diffing
+    final String snippetSource;
+    final CharSequence snippet;
+
+    private String dateText;
+    private String dateSettingsKey;
+
+    ResumeListItem(Resume resume, String settingsKey) {
+        this.key = resume.getId();
+        this.resume = resume;
+        this.headerTitle = null;
+        this.snippetSource = null;
+        this.snippet = null;
+        formatDate(settingsKey);
+    }
+
+    ResumeListItem(ResumeSearchResult result, String settingsKey) {
+        this.key = result.resume.getId();
+        this.resume = result.resume;
+        this.headerTitle = null;
+        this.snippetSource = result.snippet;
+        this.snippet = result.getHighlightedSnippet();
+        formatDate(settingsKey);
+    }
+
+    private ResumeListItem(String key, String headerTitle) {
+        this.key = key;
+        this.resume = null;
+        this.headerTitle = headerTitle;
+        this.snippetSource = null;
+        this.snippet = null;
+    }
+
+    static ResumeListItem header(String key, String title) {
+        return new ResumeListItem(key, title);
+    }
+
+    public boolean isHeader() {
+        return resume == null;
+    }
+
+    public Resume getResume() {
+        return resume;
+    }
+
+    /**
+     * Formatted updatedAt, redone only if the locale or time zone changed since it was made
+     */
+    String getDateText(String settingsKey) {
+        if (!settingsKey.equals(dateSettingsKey)) {
+            formatDate(settingsKey);
+        }
+        return dateText;
+    }
+
+    private void formatDate(String settingsKey) {
+        dateText = DateFormats.formatDateTime(resume.getUpdatedAt());
+        dateSettingsKey = settingsKey;
+    }
+}
@@ -0,0 +1,31 @@
+package com.passfamily.airesumebuilder.database;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+import com.passfamily.airesumebuilder.model.Resume;
+
+@Database(entities = {Resume.class, ResumeFts.class}, version = 1, exportSchema = false)
+public abstract class AppDatabase extends RoomDatabase {
+    private static final String DATABASE_NAME = "ai_resume_builder.db";
+
+    private static volatile AppDatabase instance;
+
+    public abstract ResumeDao resumeDao();
+
+    public static AppDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (AppDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(),
+                                    AppDatabase.class, DATABASE_NAME)
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,83 @@
+package com.passfamily.airesumebuilder.database;
+
+import com.google.firebase.firestore.Blob;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressed encoding for large text fields stored as a Firestore Blob.
+ * The first byte of the blob is a codec marker so the format can change later.
+ */
+final class FieldCompression {
+
+    static final byte CODEC_DEFLATE_UTF8 = 1;
+
+    // Text shorter than this isn't worth the Blob overhead
+    static final int MIN_COMPRESS_LENGTH = 1024;
+
+    private FieldCompression() {
+    }
+
+    /**
+     * Compress the text, or return null when it is short or doesn't shrink
+     */
+    static Blob compress(String text) {
+        if (text == null || text.length() < MIN_COMPRESS_LENGTH) {
+            return null;
+        }
+
+        byte[] input = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 16);
+            out.write(CODEC_DEFLATE_UTF8);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+            }
+
+            byte[] encoded = out.toByteArray();
+            return encoded.length < input.length ? Blob.fromBytes(encoded) : null;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static String decompress(Blob blob) {
+        byte[] encoded = blob.toBytes();
+        if (encoded.length == 0) {
+            return "";
+        }
+        if (encoded[0] != CODEC_DEFLATE_UTF8) {
+            throw new IllegalArgumentException("Unknown field codec: " + encoded[0]);
+        }
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(encoded, 1, encoded.length - 1);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated compressed field");
+                }
+                out.write(buffer, 0, count);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed field", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -1,14 +1,23 @@
 package com.passfamily.airesumebuilder.database;
 
+import android.content.Context;
 import android.util.Log;
 
 import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.CollectionReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
 import com.passfamily.airesumebuilder.model.Resume;
+import com.passfamily.airesumebuilder.utils.DateFormats;
+import com.passfamily.airesumebuilder.utils.LineDiff;
 
-import java.text.SimpleDateFormat;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
@@ -19,15 +28,27 @@ import java.util.Map;
 
 public class FirestoreManager {
     private static final String TAG = "FirestoreManager";
-    private static final String COLLECTION_RESUMES = "resumes";
+    static final String COLLECTION_RESUMES = "resumes";
     private static final String COLLECTION_USER_LIMITS = "user_limits";
+    private static final String COLLECTION_VERSIONS = "versions";
+
+    // Every 16th version stores the full content, so restoring never replays more than 15 deltas
+    private static final int VERSION_SNAPSHOT_INTERVAL = 16;
+
+    // Store experience, projects, achievements, courses and generated content compressed when large.
+    // Off until every client in use can decode Blob fields; older builds read them as strings.
+    static final boolean COMPRESS_LARGE_FIELDS = false;
 
     private FirebaseFirestore db;
     private FirebaseAuth mAuth;
+    private MonthlyLimitCache limitCache;
+    private StorageRefTracker refTracker;
 
-    public FirestoreManager() {
+    public FirestoreManager(Context context) {
         db = FirebaseFirestore.getInstance();
         mAuth = FirebaseAuth.getInstance();
+        limitCache = new MonthlyLimitCache(context);
+        refTracker = new StorageRefTracker();
     }
 
     public interface FirestoreCallback<T> {
@@ -48,6 +69,9 @@ public class FirestoreManager {
                     if (task.isSuccessful()) {
                         List<Resume> resumes = new ArrayList<>();
                         for (QueryDocumentSnapshot document : task.getResult()) {
+                            if (isTombstone(document)) {
+                                continue;
+                            }
                             Resume resume = documentToResume(document);
                             if (resume != null) {
                                 resumes.add(resume);
@@ -72,7 +96,7 @@ public class FirestoreManager {
                 .document(resumeId)
                 .get()
                 .addOnCompleteListener(task -> {
-                    if (task.isSuccessful() && task.getResult().exists()) {
+                    if (task.isSuccessful() && task.getResult().exists() && !isTombstone(task.getResult())) {
                         Resume resume = documentToResume(task.getResult());
                         callback.onSuccess(resume);
                     } else {
@@ -81,25 +105,27 @@ public class FirestoreManager {
                 });
     }
 
-    public void insertResume(Resume resume, FirestoreCallback<String> callback) {
-        String resumeId = db.collection(COLLECTION_RESUMES).document().getId();
-        resume.setId(resumeId);
+    /**
+     * Generate a document id locally, so a resume can be stored before it reaches the server
+     */
+    public String newResumeId() {
+        return db.collection(COLLECTION_RESUMES).document().getId();
+    }
 
-        Map<String, Object> resumeMap = resumeToMap(resume);
+    /**
+     * Count a resume created on this device locally right away. The server count follows
+     * through {@link #countNewResume} once the resume has been uploaded.
+     */
+    public void countPendingResume(String userId) {
+        limitCache.incrementPending(userId);
+    }
 
-        db.collection(COLLECTION_RESUMES)
-                .document(resumeId)
-                .set(resumeMap)
-                .addOnSuccessListener(aVoid -> {
-                    Log.d(TAG, "Resume added with ID: " + resumeId);
-                    // Update user's monthly count
-                    updateUserMonthlyCount(resume.getUserId());
-                    callback.onSuccess(resumeId);
-                })
-                .addOnFailureListener(e -> {
-                    Log.e(TAG, "Error adding resume: ", e);
-                    callback.onError("Failed to save resume: " + e.getMessage());
-                });
+    /**
+     * A resume created on this device reached the server, add it to the monthly count.
+     * Every new resume is counted here, whether it was uploaded right away or by a later sync.
+     */
+    void countNewResume(String userId) {
+        updateUserMonthlyCount(userId);
     }
 
     public void updateResume(Resume resume, FirestoreCallback<Void> callback) {
@@ -120,12 +146,34 @@ public class FirestoreManager {
                 });
     }
 
+    /**
+     * Write the resume exactly as it is locally, keeping its updatedAt (used by sync)
+     */
+    public void pushResume(Resume resume, FirestoreCallback<Void> callback) {
+        db.collection(COLLECTION_RESUMES)
+                .document(resume.getId())
+                .set(resumeToMap(resume))
+                .addOnSuccessListener(aVoid -> {
+                    Log.d(TAG, "Resume pushed: " + resume.getId());
+                    callback.onSuccess(null);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error pushing resume: ", e);
+                    callback.onError("Failed to sync resume: " + e.getMessage());
+                });
+    }
+
+    /**
+     * Delete a resume by replacing it with a tombstone, so other devices pick up the delete on sync
+     */
     public void deleteResume(Resume resume, FirestoreCallback<Void> callback) {
         db.collection(COLLECTION_RESUMES)
                 .document(resume.getId())
-                .delete()
+                .set(tombstoneMap(resume, System.currentTimeMillis()))
                 .addOnSuccessListener(aVoid -> {
                     Log.d(TAG, "Resume deleted: " + resume.getId());
+                    deleteResumeVersions(resume.getId());
+                    refTracker.releaseResume(resume.getUserId(), resume.getId());
                     callback.onSuccess(null);
                 })
                 .addOnFailureListener(e -> {
@@ -134,13 +182,252 @@ public class FirestoreManager {
                 });
     }
 
+    // ========== RESUME VERSION METHODS ==========
+
+    /**
+     * Record the new generated content as the next version of the resume.
+     * Versions are stored as line diffs against the previous one; if the latest stored version
+     * doesn't match previousContent (e.g. first edit) the previous content is snapshotted first.
+     */
+    public void saveResumeVersion(Resume resume, String previousContent, FirestoreCallback<Integer> callback) {
+        String newContent = resume.getGeneratedContent() != null ? resume.getGeneratedContent() : "";
+        String oldContent = previousContent != null ? previousContent : "";
+
+        CollectionReference versionsRef = versionsCollection(resume.getId());
+        versionsRef.orderBy("version", Query.Direction.DESCENDING)
+                .limit(1)
+                .get()
+                .addOnSuccessListener(snapshot -> {
+                    int latestVersion = 0;
+                    String latestHash = null;
+                    if (!snapshot.isEmpty()) {
+                        DocumentSnapshot latest = snapshot.getDocuments().get(0);
+                        Long version = latest.getLong("version");
+                        latestVersion = version != null ? version.intValue() : 0;
+                        latestHash = latest.getString("contentHash");
+                    }
+
+                    WriteBatch batch = db.batch();
+                    int nextVersion = latestVersion + 1;
+                    if (!contentHash(oldContent).equals(latestHash)) {
+                        // History doesn't end with the content being replaced, keep it as a full copy
+                        batch.set(versionsRef.document(versionDocId(nextVersion)), snapshotVersion(nextVersion, oldContent));
+                        nextVersion++;
+                    }
+
+                    Map<String, Object> versionData = isSnapshotVersion(nextVersion)
+                            ? snapshotVersion(nextVersion, newContent)
+                            : deltaVersion(nextVersion, oldContent, newContent);
+                    batch.set(versionsRef.document(versionDocId(nextVersion)), versionData);
+
+                    int savedVersion = nextVersion;
+                    batch.commit()
+                            .addOnSuccessListener(aVoid -> {
+                                Log.d(TAG, "Saved version " + savedVersion + " of resume " + resume.getId());
+                                callback.onSuccess(savedVersion);
+                            })
+                            .addOnFailureListener(e -> {
+                                Log.e(TAG, "Error saving resume version: ", e);
+                                callback.onError("Failed to save version: " + e.getMessage());
+                            });
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error reading resume versions: ", e);
+                    callback.onError("Failed to save version: " + e.getMessage());
+                });
+    }
+
+    /**
+     * List the stored versions of a resume, newest first
+     */
+    public void getResumeVersions(String resumeId, FirestoreCallback<List<ResumeVersionInfo>> callback) {
+        versionsCollection(resumeId)
+                .orderBy("version", Query.Direction.DESCENDING)
+                .get()
+                .addOnSuccessListener(snapshot -> {
+                    List<ResumeVersionInfo> versions = new ArrayList<>();
+                    for (DocumentSnapshot document : snapshot.getDocuments()) {
+                        Long version = document.getLong("version");
+                        Long createdAt = document.getLong("createdAt");
+                        versions.add(new ResumeVersionInfo(
+                                version != null ? version.intValue() : 0,
+                                createdAt != null ? createdAt : 0,
+                                "snapshot".equals(document.getString("type"))));
+                    }
+                    callback.onSuccess(versions);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error loading resume versions: ", e);
+                    callback.onError("Failed to load versions: " + e.getMessage());
+                });
+    }
+
+    /**
+     * Rebuild the content of one version
+     */
+    public void getResumeVersionContent(String resumeId, int version, FirestoreCallback<String> callback) {
+        // The scheduled snapshot at or below the target bounds how far back we have to read
+        int firstVersion = ((version - 1) / VERSION_SNAPSHOT_INTERVAL) * VERSION_SNAPSHOT_INTERVAL + 1;
+
+        versionsCollection(resumeId)
+                .whereGreaterThanOrEqualTo("version", firstVersion)
+                .whereLessThanOrEqualTo("version", version)
+                .orderBy("version", Query.Direction.ASCENDING)
+                .get()
+                .addOnSuccessListener(snapshot -> {
+                    String content = null;
+                    int rebuiltVersion = 0;
+                    for (DocumentSnapshot document : snapshot.getDocuments()) {
+                        Long documentVersion = document.getLong("version");
+                        if ("snapshot".equals(document.getString("type"))) {
+                            content = document.getString("content");
+                        } else if (content != null) {
+                            content = LineDiff.apply(content, readHunks(document));
+                        }
+                        rebuiltVersion = documentVersion != null ? documentVersion.intValue() : 0;
+                    }
+
+                    if (content == null || rebuiltVersion != version) {
+                        callback.onError("Version " + version + " not found");
+                    } else {
+                        callback.onSuccess(content);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Error loading resume version: ", e);
+                    callback.onError("Failed to load version: " + e.getMessage());
+                });
+    }
+
+    private void deleteResumeVersions(String resumeId) {
+        versionsCollection(resumeId)
+                .get()
+                .addOnSuccessListener(snapshot -> {
+                    if (snapshot.isEmpty()) {
+                        return;
+                    }
+                    WriteBatch batch = db.batch();
+                    for (DocumentSnapshot document : snapshot.getDocuments()) {
+                        batch.delete(document.getReference());
+                    }
+                    batch.commit()
+                            .addOnFailureListener(e -> Log.e(TAG, "Error deleting resume versions: ", e));
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Error listing resume versions: ", e));
+    }
+
+    private CollectionReference versionsCollection(String resumeId) {
+        return db.collection(COLLECTION_RESUMES).document(resumeId).collection(COLLECTION_VERSIONS);
+    }
+
+    private static String versionDocId(int version) {
+        return String.format(Locale.US, "v%06d", version);
+    }
+
+    private static boolean isSnapshotVersion(int version) {
+        return (version - 1) % VERSION_SNAPSHOT_INTERVAL == 0;
+    }
+
+    private static Map<String, Object> snapshotVersion(int version, String content) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("version", version);
+        data.put("type", "snapshot");
+        data.put("content", content);
+        data.put("contentHash", contentHash(content));
+        data.put("createdAt", System.currentTimeMillis());
+        return data;
+    }
+
+    private static Map<String, Object> deltaVersion(int version, String oldContent, String newContent) {
+        List<Map<String, Object>> hunks = new ArrayList<>();
+        for (LineDiff.Hunk hunk : LineDiff.diff(oldContent, newContent)) {
+            Map<String, Object> hunkData = new HashMap<>();
+            hunkData.put("at", hunk.at);
+            hunkData.put("del", hunk.deleteCount);
+            hunkData.put("ins", hunk.insertLines);
+            hunks.add(hunkData);
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("version", version);
+        data.put("type", "delta");
+        data.put("hunks", hunks);
+        data.put("contentHash", contentHash(newContent));
+        data.put("createdAt", System.currentTimeMillis());
+        return data;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<LineDiff.Hunk> readHunks(DocumentSnapshot document) {
+        List<LineDiff.Hunk> hunks = new ArrayList<>();
+        Object stored = document.get("hunks");
+        if (!(stored instanceof List)) {
+            return hunks;
+        }
+        for (Object item : (List<Object>) stored) {
+            Map<String, Object> hunkData = (Map<String, Object>) item;
+            Number at = (Number) hunkData.get("at");
+            Number deleteCount = (Number) hunkData.get("del");
+            List<String> inserts = (List<String>) hunkData.get("ins");
+            hunks.add(new LineDiff.Hunk(
+                    at != null ? at.intValue() : 0,
+                    deleteCount != null ? deleteCount.intValue() : 0,
+                    inserts != null ? inserts : new ArrayList<>()));
+        }
+        return hunks;
+    }
+
+    private static String contentHash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(content.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format(Locale.US, "%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return String.valueOf(content.hashCode());
+        }
+    }
+
     // ========== USER MONTHLY LIMIT METHODS ==========
 
     /**
      * Get the user's monthly resume count for current 30-day period
      * FIXED: Each user gets exactly 30 days from their first resume
+     * Served from the local cache when available, the server document is reconciled in the background.
      */
     public void getUserMonthlyResumeCount(String userId, FirestoreCallback<MonthlyLimitInfo> callback) {
+        MonthlyLimitInfo cachedInfo = limitCache.get(userId);
+        if (cachedInfo != null) {
+            Log.d(TAG, "Monthly count from cache: " + cachedInfo.getCount() + ", Days remaining: " + cachedInfo.getDaysRemaining());
+            callback.onSuccess(cachedInfo);
+
+            if (limitCache.needsReconcile(userId)) {
+                fetchUserMonthlyResumeCount(userId, null);
+            }
+            return;
+        }
+
+        fetchUserMonthlyResumeCount(userId, callback);
+    }
+
+    /**
+     * Read the limit document from the local Firestore cache only, so the cache is open
+     * before the first screen needs it. Succeeds whether or not the document is cached.
+     */
+    public void warmUpCache(String userId, FirestoreCallback<Void> callback) {
+        db.collection(COLLECTION_USER_LIMITS)
+                .document(userId + "_monthly_limit")
+                .get(Source.CACHE)
+                .addOnCompleteListener(task -> callback.onSuccess(null));
+    }
+
+    /**
+     * Read the limit document from Firestore and refresh the local cache
+     */
+    private void fetchUserMonthlyResumeCount(String userId, FirestoreCallback<MonthlyLimitInfo> callback) {
         String limitDocId = userId + "_monthly_limit";
 
         Log.d(TAG, "Checking monthly limit for: " + limitDocId);
@@ -155,25 +442,28 @@ public class FirestoreManager {
                         if (document.exists()) {
                             Long periodStartTimestamp = document.getLong("periodStartTimestamp");
                             Long currentCount = document.getLong("count");
+                            Long lastUpdated = document.getLong("lastUpdated");
 
                             int resumeCount = (currentCount != null) ? currentCount.intValue() : 0;
                             long periodStart = (periodStartTimestamp != null) ? periodStartTimestamp : 0;
 
                             // Check if 30 days have passed since period start
                             long currentTime = System.currentTimeMillis();
-                            long daysPassed = (currentTime - periodStart) / (1000 * 60 * 60 * 24);
+                            long daysPassed = (currentTime - periodStart) / MonthlyLimitCache.DAY_MS;
 
                             Log.d(TAG, "Monthly count: " + resumeCount + ", Days passed since period start: " + daysPassed + ", Period start: " + new Date(periodStart));
 
-                            if (daysPassed >= 30) {
+                            if (daysPassed >= MonthlyLimitCache.PERIOD_DAYS) {
                                 // 30 days have passed, user gets fresh period
                                 Log.d(TAG, "30 days passed since period start, creating new period");
                                 createNewMonthlyPeriod(userId, callback);
                             } else {
                                 // Still within 30 days
-                                long daysRemaining = 30 - daysPassed;
-                                MonthlyLimitInfo info = new MonthlyLimitInfo(resumeCount, daysRemaining, periodStart);
-                                callback.onSuccess(info);
+                                limitCache.storeServerValue(userId, resumeCount, periodStart,
+                                        lastUpdated != null ? lastUpdated : periodStart);
+                                if (callback != null) {
+                                    callback.onSuccess(limitCache.get(userId));
+                                }
                             }
                         } else {
                             // No document exists, meaning user hasn't created any resume yet
@@ -182,7 +472,9 @@ public class FirestoreManager {
                         }
                     } else {
                         Log.e(TAG, "Error fetching monthly count: " + task.getException());
-                        callback.onError("Error checking monthly limit");
+                        if (callback != null) {
+                            callback.onError("Error checking monthly limit");
+                        }
                     }
                 });
     }
@@ -206,18 +498,23 @@ public class FirestoreManager {
                 .set(data)
                 .addOnSuccessListener(aVoid -> {
                     Log.d(TAG, "New 30-day period started for user: " + userId);
-                    MonthlyLimitInfo info = new MonthlyLimitInfo(0, 30, currentTime);
-                    callback.onSuccess(info);
+                    limitCache.storeServerValue(userId, 0, currentTime, currentTime);
+                    if (callback != null) {
+                        callback.onSuccess(limitCache.get(userId));
+                    }
                 })
                 .addOnFailureListener(e -> {
                     Log.e(TAG, "Error creating new monthly period: ", e);
-                    callback.onError("Error creating new period");
+                    if (callback != null) {
+                        callback.onError("Error creating new period");
+                    }
                 });
     }
 
     /**
      * Update the user's monthly count after creating a resume
      * FIXED: Properly handles 30-day period reset
+     * The local cache was already incremented optimistically, each branch confirms or releases it.
      */
     private void updateUserMonthlyCount(String userId) {
         String limitDocId = userId + "_monthly_limit";
@@ -240,9 +537,9 @@ public class FirestoreManager {
                             long periodStart = (periodStartTimestamp != null) ? periodStartTimestamp : currentTime;
 
                             // Check if we're still within the 30-day period
-                            long daysPassed = (currentTime - periodStart) / (1000 * 60 * 60 * 24);
+                            long daysPassed = (currentTime - periodStart) / MonthlyLimitCache.DAY_MS;
 
-                            if (daysPassed >= 30) {
+                            if (daysPassed >= MonthlyLimitCache.PERIOD_DAYS) {
                                 // Period expired, start fresh period with count = 1
                                 Log.d(TAG, "Period expired, starting fresh 30-day period");
                                 Map<String, Object> freshData = new HashMap<>();
@@ -256,9 +553,11 @@ public class FirestoreManager {
                                         .set(freshData)
                                         .addOnSuccessListener(aVoid -> {
                                             Log.d(TAG, "New period started with count = 1");
+                                            limitCache.commitIncrement(userId, 1, currentTime, currentTime);
                                         })
                                         .addOnFailureListener(e -> {
                                             Log.e(TAG, "Error starting new period: ", e);
+                                            limitCache.releasePending(userId);
                                         });
                             } else {
                                 // Still within period, increment count
@@ -276,9 +575,11 @@ public class FirestoreManager {
                                         .update(updateData)
                                         .addOnSuccessListener(aVoid -> {
                                             Log.d(TAG, "Monthly count incremented to: " + newCount);
+                                            limitCache.commitIncrement(userId, newCount, periodStart, currentTime);
                                         })
                                         .addOnFailureListener(e -> {
                                             Log.e(TAG, "Error updating monthly count: ", e);
+                                            limitCache.releasePending(userId);
                                         });
                             }
                         } else {
@@ -295,17 +596,49 @@ public class FirestoreManager {
                                     .set(data)
                                     .addOnSuccessListener(aVoid -> {
                                         Log.d(TAG, "Monthly count initialized to: 1 with new 30-day period");
+                                        limitCache.commitIncrement(userId, 1, currentTime, currentTime);
                                     })
                                     .addOnFailureListener(e -> {
                                         Log.e(TAG, "Error initializing monthly count: ", e);
+                                        limitCache.releasePending(userId);
                                     });
                         }
+                    } else {
+                        Log.e(TAG, "Error reading monthly count for update: " + task.getException());
+                        limitCache.releasePending(userId);
                     }
                 });
     }
 
     // ========== HELPER CLASSES ==========
 
+    /**
+     * Class to hold resume version metadata
+     */
+    public static class ResumeVersionInfo {
+        private int version;
+        private long createdAt;
+        private boolean snapshot;
+
+        public ResumeVersionInfo(int version, long createdAt, boolean snapshot) {
+            this.version = version;
+            this.createdAt = createdAt;
+            this.snapshot = snapshot;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public long getCreatedAt() {
+            return createdAt;
+        }
+
+        public boolean isSnapshot() {
+            return snapshot;
+        }
+    }
+
     /**
      * Class to hold monthly limit information
      */
@@ -336,71 +669,38 @@ public class FirestoreManager {
             Calendar calendar = Calendar.getInstance();
             calendar.setTimeInMillis(periodStartTimestamp);
             calendar.add(Calendar.DAY_OF_YEAR, 30);
-            SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-            return sdf.format(calendar.getTime());
+            return DateFormats.formatDate(calendar.getTimeInMillis());
         }
     }
 
     // ========== HELPER METHODS ==========
 
     private Map<String, Object> resumeToMap(Resume resume) {
+        return ResumeCodec.toMap(resume, COMPRESS_LARGE_FIELDS);
+    }
+
+    /**
+     * Minimal document left behind by a delete: enough for a sync to match it to the local copy
+     */
+    static Map<String, Object> tombstoneMap(Resume resume, long deletedAt) {
         Map<String, Object> map = new HashMap<>();
         map.put("id", resume.getId());
         map.put("userId", resume.getUserId());
-        map.put("resumeName", resume.getResumeName());
-        map.put("name", resume.getName());
-        map.put("email", resume.getEmail());
-        map.put("phone", resume.getPhone());
-        map.put("github", resume.getGithub());
-        map.put("linkedin", resume.getLinkedin());
-        map.put("portfolio", resume.getPortfolio());
-        map.put("education", resume.getEducation());
-        map.put("skills", resume.getSkills());
-        map.put("experience", resume.getExperience());
-        map.put("projects", resume.getProjects());
-        map.put("achievements", resume.getAchievements());
-        map.put("courses", resume.getCourses());
-        map.put("generatedContent", resume.getGeneratedContent());
-        map.put("createdAt", resume.getCreatedAt());
-        map.put("updatedAt", resume.getUpdatedAt());
+        map.put("updatedAt", deletedAt);
+        map.put("deleted", true);
         return map;
     }
 
-    private Resume documentToResume(com.google.firebase.firestore.DocumentSnapshot document) {
-        try {
-            Resume resume = new Resume();
-            resume.setId(document.getString("id"));
-            resume.setUserId(document.getString("userId"));
-            resume.setResumeName(document.getString("resumeName"));
-            resume.setName(document.getString("name"));
-            resume.setEmail(document.getString("email"));
-            resume.setPhone(document.getString("phone"));
-            resume.setGithub(document.getString("github"));
-            resume.setLinkedin(document.getString("linkedin"));
-            resume.setPortfolio(document.getString("portfolio"));
-            resume.setEducation(document.getString("education"));
-            resume.setSkills(document.getString("skills"));
-            resume.setExperience(document.getString("experience"));
-            resume.setProjects(document.getString("projects"));
-            resume.setAchievements(document.getString("achievements"));
-            resume.setCourses(document.getString("courses"));
-            resume.setGeneratedContent(document.getString("generatedContent"));
-
-            Object createdAt = document.get("createdAt");
-            Object updatedAt = document.get("updatedAt");
-
-            if (createdAt instanceof Long) {
-                resume.setCreatedAt((Long) createdAt);
-            } else if (createdAt instanceof Double) {
-                resume.setCreatedAt(((Double) createdAt).longValue());
-            }
+    static boolean isTombstone(DocumentSnapshot document) {
+        return Boolean.TRUE.equals(document.getBoolean("deleted"));
+    }
 
-            if (updatedAt instanceof Long) {
-                resume.setUpdatedAt((Long) updatedAt);
-            } else if (updatedAt instanceof Double) {
-                resume.setUpdatedAt(((Double) updatedAt).longValue());
+    static Resume documentToResume(com.google.firebase.firestore.DocumentSnapshot document) {
+        try {
+            Resume resume = ResumeCodec.fromDocument(document);
+            if (resume.getId() == null || resume.getId().isEmpty()) {
+                resume.setId(document.getId());
             }
-
             return resume;
         } catch (Exception e) {
             Log.e(TAG, "Error converting document to resume: ", e);
@@ -0,0 +1,172 @@
+package com.passfamily.airesumebuilder.database;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local copy of the user_limits document so quota checks don't wait on Firestore.
+ * The count is split into the last server value plus increments that haven't been
+ * confirmed yet, so an insert is reflected immediately and corrected on reconcile.
+ * Each pending increment keeps the time it was made, so one whose confirmation was
+ * lost (e.g. the process died) is dropped by a newer server value or once it expires.
+ */
+public class MonthlyLimitCache {
+    private static final String PREFS_NAME = "monthly_limit_cache";
+    private static final String KEY_COUNT = "_count";
+    private static final String KEY_PENDING_AT = "_pending_at";
+    private static final String KEY_PERIOD_START = "_period_start";
+    private static final String KEY_SERVER_UPDATED = "_server_updated";
+    private static final String KEY_SYNCED_AT = "_synced_at";
+
+    static final int PERIOD_DAYS = 30;
+    static final long DAY_MS = 1000L * 60 * 60 * 24;
+
+    // How long a server value is trusted before a background reconcile is started
+    private static final long RECONCILE_INTERVAL_MS = 5 * 60 * 1000L;
+    // An increment not confirmed by then has been lost, the server count is the truth again
+    private static final long PENDING_EXPIRY_MS = 60 * 60 * 1000L;
+
+    private final SharedPreferences prefs;
+
+    public MonthlyLimitCache(Context context) {
+        prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Get the cached limit info with the 30-day rollover computed locally.
+     * Returns null when nothing has been cached for this user yet.
+     */
+    public FirestoreManager.MonthlyLimitInfo get(String userId) {
+        if (!prefs.contains(userId + KEY_PERIOD_START)) {
+            return null;
+        }
+
+        int count = prefs.getInt(userId + KEY_COUNT, 0);
+        int pending = readPending(userId).size();
+        long periodStart = prefs.getLong(userId + KEY_PERIOD_START, 0);
+
+        long currentTime = System.currentTimeMillis();
+        long daysPassed = (currentTime - periodStart) / DAY_MS;
+
+        if (daysPassed >= PERIOD_DAYS) {
+            // Period ended since the last sync, only unconfirmed inserts count towards the new one
+            return new FirestoreManager.MonthlyLimitInfo(pending, PERIOD_DAYS, currentTime);
+        }
+
+        return new FirestoreManager.MonthlyLimitInfo(count + pending, PERIOD_DAYS - daysPassed, periodStart);
+    }
+
+    /**
+     * Whether the cached value is old enough (or rolled over) to reconcile with the server
+     */
+    public boolean needsReconcile(String userId) {
+        long syncedAt = prefs.getLong(userId + KEY_SYNCED_AT, 0);
+        long periodStart = prefs.getLong(userId + KEY_PERIOD_START, 0);
+        long currentTime = System.currentTimeMillis();
+
+        return currentTime - syncedAt >= RECONCILE_INTERVAL_MS
+                || (currentTime - periodStart) / DAY_MS >= PERIOD_DAYS;
+    }
+
+    /**
+     * Store the server document values. Results older than what is already cached are
+     * ignored so a slow read can't overwrite a newer increment. Pending increments made
+     * before the server value was written are already counted in it and are dropped.
+     */
+    public void storeServerValue(String userId, int count, long periodStart, long serverUpdatedAt) {
+        if (writeServerValue(userId, count, periodStart, serverUpdatedAt)) {
+            List<Long> pending = readPending(userId);
+            List<Long> remaining = new ArrayList<>();
+            for (long pendingAt : pending) {
+                if (pendingAt > serverUpdatedAt) {
+                    remaining.add(pendingAt);
+                }
+            }
+            if (remaining.size() != pending.size()) {
+                writePending(userId, remaining);
+            }
+        }
+    }
+
+    private boolean writeServerValue(String userId, int count, long periodStart, long serverUpdatedAt) {
+        long cachedUpdatedAt = prefs.getLong(userId + KEY_SERVER_UPDATED, 0);
+        if (serverUpdatedAt < cachedUpdatedAt) {
+            return false;
+        }
+
+        prefs.edit()
+                .putInt(userId + KEY_COUNT, count)
+                .putLong(userId + KEY_PERIOD_START, periodStart)
+                .putLong(userId + KEY_SERVER_UPDATED, serverUpdatedAt)
+                .putLong(userId + KEY_SYNCED_AT, System.currentTimeMillis())
+                .apply();
+        return true;
+    }
+
+    /**
+     * Optimistically count a resume before the server count is updated
+     */
+    public void incrementPending(String userId) {
+        List<Long> pending = readPending(userId);
+        pending.add(System.currentTimeMillis());
+        writePending(userId, pending);
+    }
+
+    /**
+     * Replace one pending increment with the confirmed server count. Other increments
+     * still in flight are kept even if they started before this one was written.
+     */
+    public void commitIncrement(String userId, int serverCount, long periodStart, long serverUpdatedAt) {
+        releasePending(userId);
+        writeServerValue(userId, serverCount, periodStart, serverUpdatedAt);
+    }
+
+    /**
+     * Drop one pending increment, used when the server update failed
+     */
+    public void releasePending(String userId) {
+        List<Long> pending = readPending(userId);
+        if (!pending.isEmpty()) {
+            // Oldest first, it is the one whose server update finishes first
+            pending.remove(0);
+            writePending(userId, pending);
+        }
+    }
+
+    // Unexpired pending increments, oldest first
+    private List<Long> readPending(String userId) {
+        List<Long> pending = new ArrayList<>();
+        String stored = prefs.getString(userId + KEY_PENDING_AT, "");
+        long expiredBefore = System.currentTimeMillis() - PENDING_EXPIRY_MS;
+        for (String value : stored.split(",")) {
+            if (value.isEmpty()) {
+                continue;
+            }
+            try {
+                long pendingAt = Long.parseLong(value);
+                if (pendingAt > expiredBefore) {
+                    pending.add(pendingAt);
+                }
+            } catch (NumberFormatException ignored) {
+                // Skip a damaged entry rather than keep counting it
+            }
+        }
+        return pending;
+    }
+
+    private void writePending(String userId, List<Long> pending) {
+        StringBuilder stored = new StringBuilder();
+        for (long pendingAt : pending) {
+            if (stored.length() > 0) {
+                stored.append(',');
+            }
+            stored.append(pendingAt);
+        }
+        prefs.edit()
+                .putString(userId + KEY_PENDING_AT, stored.toString())
+                .apply();
+    }
+}
@@ -0,0 +1,196 @@
+package com.passfamily.airesumebuilder.database;
+
+import android.util.Log;
+
+import com.google.firebase.firestore.Blob;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.passfamily.airesumebuilder.model.Resume;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single field table for converting a Resume to and from a key/value document.
+ * Adding a field to Resume only needs one entry here; Firestore writes, reads and any
+ * other map-based format all go through the same table.
+ */
+public final class ResumeCodec {
+    private static final String TAG = "ResumeCodec";
+
+    /**
+     * Bump when the stored layout changes and add the upgrade step to {@link #upgrade}
+     * Version 0 is every document written before the field was introduced.
+     * Version 2 allows large text fields to be stored as compressed Blobs.
+     */
+    public static final int SCHEMA_VERSION = 2;
+    public static final String KEY_SCHEMA_VERSION = "schemaVersion";
+
+    private static final StringField[] STRING_FIELDS = {
+            new StringField("id", Resume::getId, Resume::setId),
+            new StringField("userId", Resume::getUserId, Resume::setUserId),
+            new StringField("resumeName", Resume::getResumeName, Resume::setResumeName),
+            new StringField("name", Resume::getName, Resume::setName),
+            new StringField("email", Resume::getEmail, Resume::setEmail),
+            new StringField("phone", Resume::getPhone, Resume::setPhone),
+            new StringField("github", Resume::getGithub, Resume::setGithub),
+            new StringField("linkedin", Resume::getLinkedin, Resume::setLinkedin),
+            new StringField("portfolio", Resume::getPortfolio, Resume::setPortfolio),
+            new StringField("photoPath", Resume::getPhotoPath, Resume::setPhotoPath),
+            new StringField("certificatePaths", Resume::getCertificatePaths, Resume::setCertificatePaths),
+            new StringField("education", Resume::getEducation, Resume::setEducation),
+            new StringField("skills", Resume::getSkills, Resume::setSkills),
+            new StringField("experience", Resume::getExperience, Resume::setExperience, true),
+            new StringField("projects", Resume::getProjects, Resume::setProjects, true),
+            new StringField("achievements", Resume::getAchievements, Resume::setAchievements, true),
+            new StringField("courses", Resume::getCourses, Resume::setCourses, true),
+            new StringField("generatedContent", Resume::getGeneratedContent, Resume::setGeneratedContent, true)
+    };
+
+    private static final LongField[] LONG_FIELDS = {
+            new LongField("createdAt", Resume::getCreatedAt, Resume::setCreatedAt),
+            new LongField("updatedAt", Resume::getUpdatedAt, Resume::setUpdatedAt)
+    };
+
+    // Sized so the map never rehashes: all fields plus the schema version at the default load factor
+    private static final int MAP_CAPACITY = (int) ((STRING_FIELDS.length + LONG_FIELDS.length + 1) / 0.75f) + 1;
+
+    private ResumeCodec() {
+    }
+
+    /**
+     * Read access to a stored document, so snapshots and plain maps decode the same way
+     */
+    public interface Source {
+        Object get(String key);
+    }
+
+    interface StringGetter {
+        String get(Resume resume);
+    }
+
+    interface StringSetter {
+        void set(Resume resume, String value);
+    }
+
+    interface LongGetter {
+        long get(Resume resume);
+    }
+
+    interface LongSetter {
+        void set(Resume resume, long value);
+    }
+
+    static final class StringField {
+        final String key;
+        final StringGetter getter;
+        final StringSetter setter;
+        final boolean compressible;
+
+        StringField(String key, StringGetter getter, StringSetter setter) {
+            this(key, getter, setter, false);
+        }
+
+        StringField(String key, StringGetter getter, StringSetter setter, boolean compressible) {
+            this.key = key;
+            this.getter = getter;
+            this.setter = setter;
+            this.compressible = compressible;
+        }
+    }
+
+    static final class LongField {
+        final String key;
+        final LongGetter getter;
+        final LongSetter setter;
+
+        LongField(String key, LongGetter getter, LongSetter setter) {
+            this.key = key;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    // ========== ENCODING ==========
+
+    public static Map<String, Object> toMap(Resume resume) {
+        return toMap(resume, false);
+    }
+
+    /**
+     * Encode the resume, optionally storing large text fields as compressed Blobs.
+     * Decoding handles both forms, so the flag only affects what gets written.
+     */
+    public static Map<String, Object> toMap(Resume resume, boolean compressLargeFields) {
+        Map<String, Object> map = new HashMap<>(MAP_CAPACITY);
+        for (StringField field : STRING_FIELDS) {
+            String value = field.getter.get(resume);
+            Object compressed = null;
+            if (compressLargeFields && field.compressible) {
+                compressed = FieldCompression.compress(value);
+            }
+            map.put(field.key, compressed != null ? compressed : value);
+        }
+        for (LongField field : LONG_FIELDS) {
+            map.put(field.key, field.getter.get(resume));
+        }
+        map.put(KEY_SCHEMA_VERSION, SCHEMA_VERSION);
+        return map;
+    }
+
+    // ========== DECODING ==========
+
+    public static Resume fromDocument(DocumentSnapshot document) {
+        return decode(document::get);
+    }
+
+    public static Resume fromMap(Map<String, Object> map) {
+        return decode(map::get);
+    }
+
+    public static Resume decode(Source source) {
+        Resume resume = new Resume();
+        for (StringField field : STRING_FIELDS) {
+            field.setter.set(resume, readString(source.get(field.key)));
+        }
+        for (LongField field : LONG_FIELDS) {
+            Object value = source.get(field.key);
+            if (value instanceof Number) {
+                field.setter.set(resume, ((Number) value).longValue());
+            }
+        }
+
+        int version = (int) readLong(source.get(KEY_SCHEMA_VERSION), 0);
+        if (version > SCHEMA_VERSION) {
+            Log.w(TAG, "Document schema " + version + " is newer than " + SCHEMA_VERSION + ", unknown fields ignored");
+        } else if (version < SCHEMA_VERSION) {
+            upgrade(resume, version);
+        }
+        return resume;
+    }
+
+    /**
+     * Bring a resume decoded from an older schema up to the current one
+     */
+    private static void upgrade(Resume resume, int fromVersion) {
+        if (fromVersion < 1) {
+            // Documents written before portfolio existed have no value for it
+            if (resume.getPortfolio() == null) {
+                resume.setPortfolio("");
+            }
+        }
+    }
+
+    private static String readString(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof Blob) {
+            return FieldCompression.decompress((Blob) value);
+        }
+        return value.toString();
+    }
+
+    private static long readLong(Object value, long defaultValue) {
+        return value instanceof Number ? ((Number) value).longValue() : defaultValue;
+    }
+}
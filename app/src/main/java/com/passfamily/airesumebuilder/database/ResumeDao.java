@@ -0,0 +1,49 @@
+package com.passfamily.airesumebuilder.database;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Upsert;
+
+import com.passfamily.airesumebuilder.model.Resume;
+
+import java.util.List;
+
+@Dao
+public interface ResumeDao {
+
+    @Query("SELECT * FROM resumes WHERE userId = :userId AND syncState != 2 ORDER BY updatedAt DESC")
+    List<Resume> getResumesForUser(String userId);
+
+    @Query("SELECT * FROM resumes WHERE id = :resumeId LIMIT 1")
+    Resume getResumeById(String resumeId);
+
+    @Query("SELECT * FROM resumes WHERE userId = :userId AND syncState != 0")
+    List<Resume> getPendingResumes(String userId);
+
+    @Query("SELECT resumes.*, "
+            + "snippet(resumes_fts, char(2), char(3), '…', -1, 12) AS snippet, "
+            + "matchinfo(resumes_fts, 'pcx') AS matchInfo "
+            + "FROM resumes JOIN resumes_fts ON resumes.rowid = resumes_fts.rowid "
+            + "WHERE resumes_fts MATCH :matchQuery AND resumes.userId = :userId AND resumes.syncState != 2")
+    List<ResumeSearchResult> search(String userId, String matchQuery);
+
+    // An UPDATE for existing rows, so the resumes_fts triggers replace the indexed terms;
+    // INSERT OR REPLACE would delete the row without them and leave stale docids behind
+    @Upsert
+    void upsert(Resume resume);
+
+    @Upsert
+    void upsertAll(List<Resume> resumes);
+
+    @Query("DELETE FROM resumes WHERE id = :resumeId")
+    void deleteById(String resumeId);
+
+    @Query("DELETE FROM resumes WHERE userId = :userId AND syncState = 0")
+    void deleteSyncedForUser(String userId);
+
+    /**
+     * Hide the resume locally and keep the row as a tombstone until the delete is pushed
+     */
+    @Query("UPDATE resumes SET syncState = 2, updatedAt = :deletedAt WHERE id = :resumeId")
+    void markDeleted(String resumeId, long deletedAt);
+}
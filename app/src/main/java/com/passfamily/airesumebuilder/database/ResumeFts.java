@@ -0,0 +1,29 @@
+package com.passfamily.airesumebuilder.database;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.PrimaryKey;
+
+import com.passfamily.airesumebuilder.model.Resume;
+
+/**
+ * Full-text index over the searchable resume fields. It is an external content table on
+ * resumes, so Room's triggers keep it up to date on every insert, update and delete.
+ */
+@Fts4(contentEntity = Resume.class)
+@Entity(tableName = "resumes_fts")
+public class ResumeFts {
+    // Order matches the matchinfo() column order used for ranking
+    static final String[] COLUMNS = {"resumeName", "skills", "experience", "projects", "generatedContent"};
+
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    public int rowId;
+
+    public String resumeName;
+    public String skills;
+    public String experience;
+    public String projects;
+    public String generatedContent;
+}
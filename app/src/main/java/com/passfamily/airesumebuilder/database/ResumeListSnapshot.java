@@ -0,0 +1,161 @@
+package com.passfamily.airesumebuilder.database;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.passfamily.airesumebuilder.model.Resume;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Small binary file with the resume list summary (ids, names, timestamps) and the quota info.
+ * It is read through a memory map on launch so the list can be drawn in the first frame,
+ * before Room or Firestore are initialized. Only display data is stored; anything that
+ * edits a resume must load the full record first.
+ */
+public class ResumeListSnapshot {
+    private static final String TAG = "ResumeListSnapshot";
+    private static final String FILE_NAME = "resume_list.snapshot";
+    private static final int MAGIC = 0x52534E50; // "RSNP"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final ExecutorService writeExecutor = Executors.newSingleThreadExecutor();
+
+    public static class Data {
+        public final List<Resume> resumes;
+        public final FirestoreManager.MonthlyLimitInfo limitInfo;
+
+        Data(List<Resume> resumes, FirestoreManager.MonthlyLimitInfo limitInfo) {
+            this.resumes = resumes;
+            this.limitInfo = limitInfo;
+        }
+    }
+
+    /**
+     * Read the snapshot written for this user, or null if there is none or it can't be parsed
+     */
+    public static Data read(Context context, String userId) {
+        File file = new File(context.getFilesDir(), FILE_NAME);
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            String snapshotUserId = readString(buffer);
+            if (!snapshotUserId.equals(userId)) {
+                return null;
+            }
+
+            FirestoreManager.MonthlyLimitInfo limitInfo = null;
+            if (buffer.get() == 1) {
+                int count = buffer.getInt();
+                long daysRemaining = buffer.getLong();
+                long periodStart = buffer.getLong();
+                limitInfo = new FirestoreManager.MonthlyLimitInfo(count, daysRemaining, periodStart);
+            }
+
+            int resumeCount = buffer.getInt();
+            // Each entry takes at least two string lengths and two timestamps
+            if (resumeCount < 0 || resumeCount > buffer.remaining() / (2 * 4 + 2 * 8)) {
+                throw new IOException("Bad resume count " + resumeCount);
+            }
+            List<Resume> resumes = new ArrayList<>(resumeCount);
+            for (int i = 0; i < resumeCount; i++) {
+                Resume resume = new Resume();
+                resume.setUserId(snapshotUserId);
+                resume.setId(readString(buffer));
+                resume.setResumeName(readString(buffer));
+                resume.setCreatedAt(buffer.getLong());
+                resume.setUpdatedAt(buffer.getLong());
+                resumes.add(resume);
+            }
+            return new Data(resumes, limitInfo);
+        } catch (Exception e) {
+            Log.e(TAG, "Could not read snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write the snapshot on a background thread. The file is replaced atomically.
+     */
+    public static void writeAsync(Context context, String userId, List<Resume> resumes,
+                                  FirestoreManager.MonthlyLimitInfo limitInfo) {
+        File dir = context.getFilesDir();
+        List<Resume> copy = new ArrayList<>(resumes);
+        writeExecutor.execute(() -> {
+            File tempFile = new File(dir, FILE_NAME + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, userId);
+
+                if (limitInfo != null) {
+                    out.writeByte(1);
+                    out.writeInt(limitInfo.getCount());
+                    out.writeLong(limitInfo.getDaysRemaining());
+                    out.writeLong(limitInfo.getPeriodStartTimestamp());
+                } else {
+                    out.writeByte(0);
+                }
+
+                out.writeInt(copy.size());
+                for (Resume resume : copy) {
+                    writeString(out, resume.getId());
+                    writeString(out, resume.getResumeName());
+                    out.writeLong(resume.getCreatedAt());
+                    out.writeLong(resume.getUpdatedAt());
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "Could not write snapshot: " + e.getMessage());
+                tempFile.delete();
+                return;
+            }
+
+            if (!tempFile.renameTo(new File(dir, FILE_NAME))) {
+                Log.e(TAG, "Could not replace snapshot file");
+                tempFile.delete();
+            }
+        });
+    }
+
+    public static void clear(Context context) {
+        new File(context.getFilesDir(), FILE_NAME).delete();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // Lengths come from disk, so a damaged file must not size the allocation
+    private static String readString(MappedByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Bad string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
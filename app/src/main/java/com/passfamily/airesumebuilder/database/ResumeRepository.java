@@ -0,0 +1,365 @@
+package com.passfamily.airesumebuilder.database;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.passfamily.airesumebuilder.model.Resume;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Offline-first access to resumes. Reads are served from the Room database and writes land
+ * there first; Firestore is synced in the background by {@link SyncEngine}. When both sides
+ * changed, the copy with the newer updatedAt wins.
+ */
+public class ResumeRepository {
+    private static final String TAG = "ResumeRepository";
+
+    private static volatile ResumeRepository instance;
+
+    private final ResumeDao resumeDao;
+    private final FirestoreManager firestoreManager;
+    private final SyncEngine syncEngine;
+    private final StorageRefTracker refTracker;
+    // Single thread so local writes are applied in the order they were made
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    // Searches run separately so typing isn't queued behind a sync
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
+    // Sync blocks on network calls, so it gets its own thread as well
+    private final ExecutorService syncExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private ResumeRepository(Context context) {
+        resumeDao = AppDatabase.getInstance(context).resumeDao();
+        firestoreManager = new FirestoreManager(context);
+        syncEngine = new SyncEngine(context);
+        refTracker = new StorageRefTracker();
+    }
+
+    public static ResumeRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ResumeRepository.class) {
+                if (instance == null) {
+                    instance = new ResumeRepository(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ========== READS ==========
+
+    /**
+     * Resumes stored on this device, newest first
+     */
+    public void getAllResumesForUser(String userId, FirestoreManager.FirestoreCallback<List<Resume>> callback) {
+        diskExecutor.execute(() -> {
+            List<Resume> resumes = resumeDao.getResumesForUser(userId);
+            mainHandler.post(() -> callback.onSuccess(resumes));
+        });
+    }
+
+    /**
+     * Resume from local storage, falling back to Firestore only if it was never synced here
+     */
+    public void getResumeById(String resumeId, FirestoreManager.FirestoreCallback<Resume> callback) {
+        diskExecutor.execute(() -> {
+            Resume resume = resumeDao.getResumeById(resumeId);
+            if (resume != null && resume.getSyncState() == Resume.SYNC_STATE_DELETED) {
+                mainHandler.post(() -> callback.onError("Resume not found"));
+                return;
+            }
+            if (resume != null) {
+                mainHandler.post(() -> callback.onSuccess(resume));
+                return;
+            }
+
+            firestoreManager.getResumeById(resumeId, new FirestoreManager.FirestoreCallback<Resume>() {
+                @Override
+                public void onSuccess(Resume result) {
+                    if (result != null) {
+                        diskExecutor.execute(() -> resumeDao.upsert(result));
+                    }
+                    callback.onSuccess(result);
+                }
+
+                @Override
+                public void onError(String error) {
+                    callback.onError(error);
+                }
+            });
+        });
+    }
+
+    /**
+     * Full-text search over name, skills, experience, projects and generated content.
+     * Every word is matched as a prefix so results update while the user types.
+     */
+    public void searchResumes(String userId, String query, FirestoreManager.FirestoreCallback<List<ResumeSearchResult>> callback) {
+        String matchQuery = buildMatchQuery(query);
+        if (matchQuery == null) {
+            mainHandler.post(() -> callback.onSuccess(new ArrayList<>()));
+            return;
+        }
+
+        searchExecutor.execute(() -> {
+            try {
+                List<ResumeSearchResult> results = resumeDao.search(userId, matchQuery);
+                Collections.sort(results, (a, b) -> Double.compare(b.getScore(), a.getScore()));
+                mainHandler.post(() -> callback.onSuccess(results));
+            } catch (Exception e) {
+                Log.e(TAG, "Search failed for: " + matchQuery, e);
+                mainHandler.post(() -> callback.onError("Search failed"));
+            }
+        });
+    }
+
+    private static String buildMatchQuery(String query) {
+        if (query == null) {
+            return null;
+        }
+
+        // Keep only letters and digits so user input can't form FTS operators
+        StringBuilder matchQuery = new StringBuilder();
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i <= query.length(); i++) {
+            char c = i < query.length() ? query.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                term.append(Character.toLowerCase(c));
+            } else if (term.length() > 0) {
+                if (matchQuery.length() > 0) {
+                    matchQuery.append(' ');
+                }
+                matchQuery.append(term).append('*');
+                term.setLength(0);
+            }
+        }
+        return matchQuery.length() > 0 ? matchQuery.toString() : null;
+    }
+
+    // ========== WRITES ==========
+
+    /**
+     * Store a new resume locally and upload it. The callback fires once it is stored locally.
+     * The upload goes through {@link SyncEngine}, which also counts it against the monthly limit.
+     */
+    public void insertResume(Resume resume, FirestoreManager.FirestoreCallback<String> callback) {
+        resume.setId(firestoreManager.newResumeId());
+        resume.setSyncState(Resume.SYNC_STATE_CREATED);
+        firestoreManager.countPendingResume(resume.getUserId());
+
+        diskExecutor.execute(() -> {
+            resumeDao.upsert(resume);
+            updateReferences(null, resume);
+            mainHandler.post(() -> callback.onSuccess(resume.getId()));
+            pushInBackground(resume.getUserId());
+        });
+    }
+
+    public void updateResume(Resume resume, FirestoreManager.FirestoreCallback<Void> callback) {
+        resume.setUpdatedAt(System.currentTimeMillis());
+        resume.setSyncState(Resume.SYNC_STATE_PENDING);
+
+        diskExecutor.execute(() -> {
+            Resume current = resumeDao.getResumeById(resume.getId());
+            updateReferences(current, resume);
+            if (current != null && current.getSyncState() == Resume.SYNC_STATE_CREATED) {
+                // Not uploaded yet, it goes up with the sync that counts it as new
+                resume.setSyncState(Resume.SYNC_STATE_CREATED);
+                resumeDao.upsert(resume);
+                mainHandler.post(() -> callback.onSuccess(null));
+                pushInBackground(resume.getUserId());
+                return;
+            }
+
+            resumeDao.upsert(resume);
+            mainHandler.post(() -> callback.onSuccess(null));
+
+            mainHandler.post(() -> firestoreManager.pushResume(resume, new FirestoreManager.FirestoreCallback<Void>() {
+                @Override
+                public void onSuccess(Void result) {
+                    markSynced(resume);
+                }
+
+                @Override
+                public void onError(String error) {
+                    Log.e(TAG, "Resume update kept locally, upload failed: " + error);
+                }
+            }));
+        });
+    }
+
+    /**
+     * Restore an earlier version as the current content. It is applied to the stored row
+     * and saved like an edit, so the list, search and sync all see it, and it is recorded
+     * as a new version so the content it replaces stays in the history.
+     */
+    public void restoreResumeVersion(String resumeId, int version, FirestoreManager.FirestoreCallback<Resume> callback) {
+        firestoreManager.getResumeVersionContent(resumeId, version, new FirestoreManager.FirestoreCallback<String>() {
+            @Override
+            public void onSuccess(String content) {
+                diskExecutor.execute(() -> {
+                    Resume current = resumeDao.getResumeById(resumeId);
+                    if (current == null || current.getSyncState() == Resume.SYNC_STATE_DELETED) {
+                        mainHandler.post(() -> callback.onError("Resume not found"));
+                        return;
+                    }
+                    String previousContent = current.getGeneratedContent();
+                    current.setGeneratedContent(content);
+                    mainHandler.post(() -> updateResume(current, new FirestoreManager.FirestoreCallback<Void>() {
+                        @Override
+                        public void onSuccess(Void result) {
+                            firestoreManager.saveResumeVersion(current, previousContent, new FirestoreManager.FirestoreCallback<Integer>() {
+                                @Override
+                                public void onSuccess(Integer savedVersion) {
+                                    callback.onSuccess(current);
+                                }
+
+                                @Override
+                                public void onError(String error) {
+                                    // Content is restored even if the history entry couldn't be written
+                                    callback.onSuccess(current);
+                                }
+                            });
+                        }
+
+                        @Override
+                        public void onError(String error) {
+                            callback.onError(error);
+                        }
+                    }));
+                });
+            }
+
+            @Override
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        });
+    }
+
+    /**
+     * Hide the resume locally right away and push the delete as a tombstone
+     */
+    public void deleteResume(Resume resume, FirestoreManager.FirestoreCallback<Void> callback) {
+        long deletedAt = System.currentTimeMillis();
+
+        diskExecutor.execute(() -> {
+            resumeDao.markDeleted(resume.getId(), deletedAt);
+            mainHandler.post(() -> callback.onSuccess(null));
+
+            mainHandler.post(() -> firestoreManager.deleteResume(resume, new FirestoreManager.FirestoreCallback<Void>() {
+                @Override
+                public void onSuccess(Void result) {
+                    diskExecutor.execute(() -> {
+                        Resume current = resumeDao.getResumeById(resume.getId());
+                        if (current != null && current.getSyncState() == Resume.SYNC_STATE_DELETED) {
+                            resumeDao.deleteById(resume.getId());
+                        }
+                    });
+                }
+
+                @Override
+                public void onError(String error) {
+                    // The tombstone row stays and is pushed by the next sync
+                    Log.e(TAG, "Delete kept locally, upload failed: " + error);
+                }
+            }));
+        });
+    }
+
+    // ========== SYNC ==========
+
+    /**
+     * Push local changes and pull what changed on the server since the last sync.
+     * The callback gets the merged local list.
+     */
+    public void refreshResumes(String userId, FirestoreManager.FirestoreCallback<List<Resume>> callback) {
+        syncExecutor.execute(() -> {
+            try {
+                syncEngine.syncNow(userId);
+                List<Resume> merged = resumeDao.getResumesForUser(userId);
+                mainHandler.post(() -> callback.onSuccess(merged));
+            } catch (Exception e) {
+                Log.e(TAG, "Sync failed: ", e);
+                mainHandler.post(() -> callback.onError("Failed to sync resumes: " + e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Drop the user's sync state at sign-out. Runs after any sync already queued.
+     */
+    public void signOut(String userId) {
+        syncExecutor.execute(() -> syncEngine.reset(userId));
+    }
+
+    SyncEngine getSyncEngine() {
+        return syncEngine;
+    }
+
+    private void pushInBackground(String userId) {
+        syncExecutor.execute(() -> {
+            try {
+                syncEngine.pushNow(userId);
+            } catch (Exception e) {
+                // The row stays pending and is pushed by the next sync
+                Log.e(TAG, "Resume kept locally, upload failed: ", e);
+            }
+        });
+    }
+
+    /**
+     * Record the files the resume now uses and release the ones it dropped, so the
+     * storage sweep keeps the first and can clean up the rest
+     */
+    private void updateReferences(Resume previous, Resume resume) {
+        Set<String> oldPaths = previous != null ? storagePaths(previous) : Collections.emptySet();
+        Set<String> newPaths = storagePaths(resume);
+        for (String path : newPaths) {
+            if (!oldPaths.contains(path)) {
+                refTracker.addReference(resume.getUserId(), path, resume.getId());
+            }
+        }
+        for (String path : oldPaths) {
+            if (!newPaths.contains(path)) {
+                refTracker.removeReference(resume.getUserId(), path, resume.getId());
+            }
+        }
+    }
+
+    private static Set<String> storagePaths(Resume resume) {
+        Set<String> paths = new LinkedHashSet<>();
+        if (resume.getPhotoPath() != null && !resume.getPhotoPath().isEmpty()) {
+            paths.add(resume.getPhotoPath());
+        }
+        if (resume.getCertificatePaths() != null) {
+            for (String path : resume.getCertificatePaths().split("\n")) {
+                if (!path.isEmpty()) {
+                    paths.add(path);
+                }
+            }
+        }
+        return paths;
+    }
+
+    private void markSynced(Resume resume) {
+        diskExecutor.execute(() -> {
+            Resume current = resumeDao.getResumeById(resume.getId());
+            // Only clear the flag if nothing newer was written locally in the meantime
+            if (current != null && current.getUpdatedAt() == resume.getUpdatedAt()
+                    && current.getSyncState() == Resume.SYNC_STATE_PENDING) {
+                current.setSyncState(Resume.SYNC_STATE_SYNCED);
+                resumeDao.upsert(current);
+            }
+        });
+    }
+}
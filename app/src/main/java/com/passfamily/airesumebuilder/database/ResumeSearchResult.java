@@ -0,0 +1,94 @@
+package com.passfamily.airesumebuilder.database;
+
+import android.graphics.Typeface;
+import android.text.SpannableStringBuilder;
+import android.text.Spanned;
+import android.text.style.StyleSpan;
+
+import androidx.room.Embedded;
+import androidx.room.Ignore;
+
+import com.passfamily.airesumebuilder.model.Resume;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * One full-text search hit with its snippet and the raw matchinfo used for ranking
+ */
+public class ResumeSearchResult {
+    static final String MATCH_START = "\u0002";
+    static final String MATCH_END = "\u0003";
+
+    // Weight per indexed column, same order as ResumeFts.COLUMNS
+    private static final double[] COLUMN_WEIGHTS = {4.0, 2.0, 1.0, 1.0, 0.5};
+
+    @Embedded
+    public Resume resume;
+
+    public String snippet;
+
+    // matchinfo(resumes_fts, 'pcx')
+    public byte[] matchInfo;
+
+    @Ignore
+    private double score = -1;
+
+    /**
+     * Relevance score: matches in each column weighted by how rare the term is across all rows
+     */
+    public double getScore() {
+        if (score >= 0) {
+            return score;
+        }
+        score = 0;
+        if (matchInfo == null || matchInfo.length < 8) {
+            return score;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        int phraseCount = buffer.getInt(0);
+        int columnCount = buffer.getInt(4);
+        for (int phrase = 0; phrase < phraseCount; phrase++) {
+            for (int column = 0; column < columnCount; column++) {
+                int offset = 8 + 12 * (phrase * columnCount + column);
+                int hitsInRow = buffer.getInt(offset);
+                int hitsInAllRows = buffer.getInt(offset + 4);
+                if (hitsInRow > 0 && hitsInAllRows > 0) {
+                    double weight = column < COLUMN_WEIGHTS.length ? COLUMN_WEIGHTS[column] : 1.0;
+                    score += weight * hitsInRow / hitsInAllRows;
+                }
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Snippet text with the matched terms in bold
+     */
+    public CharSequence getHighlightedSnippet() {
+        if (snippet == null) {
+            return null;
+        }
+
+        SpannableStringBuilder builder = new SpannableStringBuilder();
+        int index = 0;
+        while (index < snippet.length()) {
+            int start = snippet.indexOf(MATCH_START, index);
+            if (start < 0) {
+                builder.append(snippet, index, snippet.length());
+                break;
+            }
+            int end = snippet.indexOf(MATCH_END, start + 1);
+            if (end < 0) {
+                end = snippet.length();
+            }
+            builder.append(snippet, index, start);
+            int spanStart = builder.length();
+            builder.append(snippet, start + 1, end);
+            builder.setSpan(new StyleSpan(Typeface.BOLD), spanStart, builder.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+            index = end + 1;
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,163 @@
+package com.passfamily.airesumebuilder.database;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.SetOptions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records which resumes use which uploaded files, one document per stored object under
+ * storage_refs/{userId}/objects. An object nothing refers to gets an unreferencedSince
+ * time, and {@link StorageSweepWorker} deletes it once that is old enough.
+ */
+public class StorageRefTracker {
+    private static final String TAG = "StorageRefTracker";
+    private static final String COLLECTION_STORAGE_REFS = "storage_refs";
+    private static final String COLLECTION_OBJECTS = "objects";
+
+    static final String FIELD_PATH = "path";
+    static final String FIELD_RESUME_IDS = "resumeIds";
+    static final String FIELD_UNREFERENCED_SINCE = "unreferencedSince";
+
+    private final FirebaseFirestore db;
+
+    public StorageRefTracker() {
+        db = FirebaseFirestore.getInstance();
+    }
+
+    /**
+     * A file was uploaded. Until a resume refers to it, it counts as unreferenced, so an
+     * upload that never gets attached is cleaned up too. Existing records are left alone.
+     */
+    public void trackUpload(String userId, String storagePath) {
+        createIfMissing(objectDocument(userId, storagePath), storagePath, System.currentTimeMillis())
+                .addOnFailureListener(e -> Log.e(TAG, "Error tracking upload: ", e));
+    }
+
+    public void addReference(String userId, String storagePath, String resumeId) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(FIELD_PATH, storagePath);
+        data.put(FIELD_RESUME_IDS, FieldValue.arrayUnion(resumeId));
+        data.put(FIELD_UNREFERENCED_SINCE, FieldValue.delete());
+        objectDocument(userId, storagePath)
+                .set(data, SetOptions.merge())
+                .addOnFailureListener(e -> Log.e(TAG, "Error adding reference: ", e));
+    }
+
+    public void removeReference(String userId, String storagePath, String resumeId) {
+        removeReference(objectDocument(userId, storagePath), resumeId);
+    }
+
+    /**
+     * Drop every reference held by a deleted resume
+     */
+    public void releaseResume(String userId, String resumeId) {
+        objects(userId)
+                .whereArrayContains(FIELD_RESUME_IDS, resumeId)
+                .get()
+                .addOnSuccessListener(querySnapshot -> {
+                    for (QueryDocumentSnapshot document : querySnapshot) {
+                        removeReference(document.getReference(), resumeId);
+                    }
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Error releasing references: ", e));
+    }
+
+    CollectionReference objects(String userId) {
+        return db.collection(COLLECTION_STORAGE_REFS).document(userId).collection(COLLECTION_OBJECTS);
+    }
+
+    /**
+     * Whether the record still says nothing refers to the object
+     */
+    @SuppressWarnings("unchecked")
+    static boolean isUnreferenced(DocumentSnapshot document) {
+        Object resumeIds = document.get(FIELD_RESUME_IDS);
+        return document.exists()
+                && document.get(FIELD_UNREFERENCED_SINCE) != null
+                && (!(resumeIds instanceof List) || ((List<Object>) resumeIds).isEmpty());
+    }
+
+    /**
+     * Delete the record if it is still unreferenced since before the cutoff. Resolves to
+     * true if the object may now be deleted.
+     */
+    Task<Boolean> claimForDeletion(DocumentReference document, long cutoff) {
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(document);
+            Long unreferencedSince = snapshot.getLong(FIELD_UNREFERENCED_SINCE);
+            if (!isUnreferenced(snapshot) || unreferencedSince == null || unreferencedSince > cutoff) {
+                return false;
+            }
+            transaction.delete(document);
+            return true;
+        });
+    }
+
+    /**
+     * Put back a record claimed for deletion whose delete then failed, with its original
+     * time so the next sweep tries again. A record written since, by a new reference, wins.
+     */
+    Task<Void> restoreUnreferenced(DocumentReference document, String storagePath, long unreferencedSince) {
+        return createIfMissing(document, storagePath, unreferencedSince);
+    }
+
+    private Task<Void> createIfMissing(DocumentReference document, String storagePath, long unreferencedSince) {
+        return db.runTransaction(transaction -> {
+            if (!transaction.get(document).exists()) {
+                Map<String, Object> data = new HashMap<>();
+                data.put(FIELD_PATH, storagePath);
+                data.put(FIELD_RESUME_IDS, new ArrayList<String>());
+                data.put(FIELD_UNREFERENCED_SINCE, unreferencedSince);
+                transaction.set(document, data);
+            }
+            return null;
+        });
+    }
+
+    // Done in a transaction so the last reference going away and a new one arriving can't cross
+    @SuppressWarnings("unchecked")
+    private void removeReference(DocumentReference document, String resumeId) {
+        db.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(document);
+            if (!snapshot.exists()) {
+                return null;
+            }
+            List<String> resumeIds = new ArrayList<>();
+            Object stored = snapshot.get(FIELD_RESUME_IDS);
+            if (stored instanceof List) {
+                resumeIds.addAll((List<String>) stored);
+            }
+            resumeIds.remove(resumeId);
+
+            Map<String, Object> updates = new HashMap<>();
+            updates.put(FIELD_RESUME_IDS, resumeIds);
+            if (resumeIds.isEmpty()) {
+                updates.put(FIELD_UNREFERENCED_SINCE, System.currentTimeMillis());
+            }
+            transaction.update(document, updates);
+            return null;
+        }).addOnFailureListener(e -> Log.e(TAG, "Error removing reference: ", e));
+    }
+
+    private DocumentReference objectDocument(String userId, String storagePath) {
+        return objects(userId).document(documentId(storagePath));
+    }
+
+    // Document ids can't contain slashes
+    private static String documentId(String storagePath) {
+        String path = storagePath.startsWith("/") ? storagePath.substring(1) : storagePath;
+        return path.replace('/', '|');
+    }
+}
@@ -0,0 +1,169 @@
+package com.passfamily.airesumebuilder.database;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageException;
+import com.passfamily.airesumebuilder.utils.StorageHelper;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes the signed-in user's uploaded files that no resume has referred to for a
+ * while, as recorded by {@link StorageRefTracker}. Deletes are spaced out and capped per
+ * run. In dry-run mode nothing is deleted; the files that would go are logged and
+ * counted in the output data instead.
+ */
+public class StorageSweepWorker extends Worker {
+    private static final String TAG = "StorageSweepWorker";
+    private static final String WORK_NAME = "storage_sweep";
+    private static final String DRY_RUN_WORK_NAME = "storage_sweep_dry_run";
+    private static final long SWEEP_INTERVAL_HOURS = 24;
+
+    public static final String KEY_DRY_RUN = "dry_run";
+    public static final String KEY_CANDIDATES = "candidates";
+    public static final String KEY_DELETED = "deleted";
+    public static final String KEY_BYTES = "bytes";
+
+    // Time an object must stay unreferenced, so an undo or a slow attach can still claim it
+    private static final long GRACE_PERIOD_MS = 7L * 24 * 60 * 60 * 1000;
+
+    // At most this many deletes per run, no faster than four a second
+    private static final int MAX_DELETES_PER_RUN = 100;
+    private static final long DELETE_INTERVAL_MS = 250;
+
+    public StorageSweepWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) {
+            return Result.success();
+        }
+
+        boolean dryRun = getInputData().getBoolean(KEY_DRY_RUN, false);
+        long cutoff = System.currentTimeMillis() - GRACE_PERIOD_MS;
+        StorageRefTracker tracker = new StorageRefTracker();
+        StorageHelper storageHelper = new StorageHelper(getApplicationContext());
+
+        int candidates = 0;
+        int deleted = 0;
+        long bytes = 0;
+        try {
+            QuerySnapshot querySnapshot = Tasks.await(tracker.objects(user.getUid())
+                    .whereLessThanOrEqualTo(StorageRefTracker.FIELD_UNREFERENCED_SINCE, cutoff)
+                    .limit(MAX_DELETES_PER_RUN)
+                    .get());
+
+            for (QueryDocumentSnapshot document : querySnapshot) {
+                String path = document.getString(StorageRefTracker.FIELD_PATH);
+                if (path == null || !StorageRefTracker.isUnreferenced(document)) {
+                    continue;
+                }
+                candidates++;
+
+                if (dryRun) {
+                    long size = sizeOf(path);
+                    bytes += size;
+                    Log.d(TAG, "Would delete " + path + " (" + size + " bytes)");
+                    continue;
+                }
+
+                // Re-checked in a transaction, a resume may have picked it up since the query
+                if (!Tasks.await(tracker.claimForDeletion(document.getReference(), cutoff))) {
+                    continue;
+                }
+                try {
+                    storageHelper.deleteByPath(path);
+                    deleted++;
+                } catch (ExecutionException e) {
+                    // Keep it tracked, still due, so a later run tries again
+                    Log.e(TAG, "Could not delete " + path + ": " + e.getMessage());
+                    Long unreferencedSince = document.getLong(StorageRefTracker.FIELD_UNREFERENCED_SINCE);
+                    Tasks.await(tracker.restoreUnreferenced(document.getReference(), path,
+                            unreferencedSince != null ? unreferencedSince : cutoff));
+                }
+                Thread.sleep(DELETE_INTERVAL_MS);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Storage sweep failed: ", e);
+            return Result.retry();
+        }
+
+        Log.d(TAG, (dryRun ? "Dry run: " : "Sweep: ") + candidates + " unreferenced, "
+                + deleted + " deleted" + (dryRun ? ", " + bytes + " bytes reclaimable" : ""));
+        return Result.success(new Data.Builder()
+                .putInt(KEY_CANDIDATES, candidates)
+                .putInt(KEY_DELETED, deleted)
+                .putLong(KEY_BYTES, bytes)
+                .build());
+    }
+
+    private static long sizeOf(String path) throws ExecutionException, InterruptedException {
+        try {
+            return Tasks.await(FirebaseStorage.getInstance().getReference(path).getMetadata()).getSizeBytes();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof StorageException
+                    && ((StorageException) e.getCause()).getErrorCode() == StorageException.ERROR_OBJECT_NOT_FOUND) {
+                return 0;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Schedule the daily sweep; keeps the existing schedule if one is already queued
+     */
+    public static void schedule(Context context) {
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(StorageSweepWorker.class, SWEEP_INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(constraints())
+                .build();
+
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * Report what the sweep would delete without deleting anything. The counts are in
+     * the output data of the returned work.
+     */
+    public static OneTimeWorkRequest runDryRun(Context context) {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(StorageSweepWorker.class)
+                .setConstraints(constraints())
+                .setInputData(new Data.Builder().putBoolean(KEY_DRY_RUN, true).build())
+                .build();
+
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(DRY_RUN_WORK_NAME, ExistingWorkPolicy.REPLACE, request);
+        return request;
+    }
+
+    private static Constraints constraints() {
+        return new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+    }
+}
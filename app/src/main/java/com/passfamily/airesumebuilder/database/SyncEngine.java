@@ -0,0 +1,245 @@
+package com.passfamily.airesumebuilder.database;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.Blob;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+import com.passfamily.airesumebuilder.model.Resume;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Incremental two-way sync between Room and Firestore.
+ * Local changes are pushed in write batches, then only documents whose updatedAt is past
+ * the stored high-water mark are pulled, page by page. Must be called off the main thread.
+ */
+public class SyncEngine {
+    private static final String TAG = "SyncEngine";
+    private static final String PREFS_NAME = "sync_state";
+    private static final String KEY_HIGH_WATER_MARK = "_high_water_mark";
+
+    private static final int PULL_PAGE_SIZE = 50;
+    // Firestore allows 500 writes per batch
+    private static final int PUSH_BATCH_SIZE = 400;
+    // Pull a little before the mark so writes from devices with a slightly slow clock aren't missed
+    private static final long CLOCK_SKEW_MS = 5 * 60 * 1000L;
+    // A batch only completes once the server acknowledges it, which never happens offline
+    private static final long PUSH_TIMEOUT_SECONDS = 30;
+
+    // Shared by every instance, so the foreground sync and the worker never run together
+    private static final Object LOCK = new Object();
+
+    private final Context context;
+    private final ResumeDao resumeDao;
+    private final FirebaseFirestore db;
+    private final SharedPreferences prefs;
+    private final StorageRefTracker refTracker;
+    private final FirestoreManager firestoreManager;
+
+    public SyncEngine(Context context) {
+        this.context = context.getApplicationContext();
+        this.resumeDao = AppDatabase.getInstance(context).resumeDao();
+        this.db = FirebaseFirestore.getInstance();
+        this.prefs = this.context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.refTracker = new StorageRefTracker();
+        this.firestoreManager = new FirestoreManager(this.context);
+    }
+
+    /**
+     * Run one full sync for the user and return its metrics
+     */
+    public SyncMetrics syncNow(String userId) throws ExecutionException, InterruptedException {
+        synchronized (LOCK) {
+            long startTime = SystemClock.elapsedRealtime();
+            SyncMetrics metrics = new SyncMetrics();
+
+            pushPending(userId, metrics);
+            pullChanges(userId, metrics);
+
+            metrics.durationMs = SystemClock.elapsedRealtime() - startTime;
+            metrics.finishedAt = System.currentTimeMillis();
+            metrics.save(context);
+            Log.d(TAG, "Sync finished: " + metrics);
+            return metrics;
+        }
+    }
+
+    /**
+     * Push local changes only, used right after a local write
+     */
+    public void pushNow(String userId) throws ExecutionException, InterruptedException {
+        synchronized (LOCK) {
+            pushPending(userId, new SyncMetrics());
+        }
+    }
+
+    // ========== PUSH ==========
+
+    private void pushPending(String userId, SyncMetrics metrics) throws ExecutionException, InterruptedException {
+        List<Resume> pending = resumeDao.getPendingResumes(userId);
+        CollectionReference resumes = db.collection(FirestoreManager.COLLECTION_RESUMES);
+
+        for (int start = 0; start < pending.size(); start += PUSH_BATCH_SIZE) {
+            List<Resume> chunk = pending.subList(start, Math.min(start + PUSH_BATCH_SIZE, pending.size()));
+
+            WriteBatch batch = db.batch();
+            for (Resume resume : chunk) {
+                if (resume.getSyncState() == Resume.SYNC_STATE_DELETED) {
+                    batch.set(resumes.document(resume.getId()),
+                            FirestoreManager.tombstoneMap(resume, resume.getUpdatedAt()));
+                } else {
+                    batch.set(resumes.document(resume.getId()),
+                            ResumeCodec.toMap(resume, FirestoreManager.COMPRESS_LARGE_FIELDS));
+                }
+            }
+            try {
+                Tasks.await(batch.commit(), PUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                // Rows stay pending and are pushed again by the next sync; the set is idempotent
+                Log.w(TAG, "Push not acknowledged, leaving " + (pending.size() - start) + " resumes pending");
+                return;
+            }
+
+            for (Resume resume : chunk) {
+                Resume current = resumeDao.getResumeById(resume.getId());
+                if (resume.getSyncState() == Resume.SYNC_STATE_CREATED) {
+                    // New resumes count against the monthly limit however they were uploaded
+                    firestoreManager.countNewResume(userId);
+                    if (current != null && current.getSyncState() == Resume.SYNC_STATE_CREATED) {
+                        current.setSyncState(current.getUpdatedAt() == resume.getUpdatedAt()
+                                ? Resume.SYNC_STATE_SYNCED
+                                : Resume.SYNC_STATE_PENDING);
+                        resumeDao.upsert(current);
+                        metrics.documentsPushed++;
+                    }
+                    continue;
+                }
+                // Skip rows edited again while the batch was in flight, the next sync pushes them
+                if (current == null || current.getUpdatedAt() != resume.getUpdatedAt()) {
+                    continue;
+                }
+                if (resume.getSyncState() == Resume.SYNC_STATE_DELETED) {
+                    resumeDao.deleteById(resume.getId());
+                    refTracker.releaseResume(userId, resume.getId());
+                    metrics.tombstonesPushed++;
+                } else {
+                    current.setSyncState(Resume.SYNC_STATE_SYNCED);
+                    resumeDao.upsert(current);
+                    metrics.documentsPushed++;
+                }
+            }
+        }
+    }
+
+    // ========== PULL ==========
+
+    private void pullChanges(String userId, SyncMetrics metrics) throws ExecutionException, InterruptedException {
+        long highWaterMark = prefs.getLong(userId + KEY_HIGH_WATER_MARK, 0);
+        long since = Math.max(0, highWaterMark - CLOCK_SKEW_MS);
+        long newHighWaterMark = highWaterMark;
+
+        // Same ordering as the resume list query, so it is served by the existing index
+        Query query = db.collection(FirestoreManager.COLLECTION_RESUMES)
+                .whereEqualTo("userId", userId)
+                .whereGreaterThan("updatedAt", since)
+                .orderBy("updatedAt", Query.Direction.DESCENDING)
+                .limit(PULL_PAGE_SIZE);
+
+        DocumentSnapshot lastDocument = null;
+        while (true) {
+            Query page = lastDocument != null ? query.startAfter(lastDocument) : query;
+            QuerySnapshot snapshot = Tasks.await(page.get());
+            List<DocumentSnapshot> documents = snapshot.getDocuments();
+
+            for (DocumentSnapshot document : documents) {
+                metrics.documentsPulled++;
+                metrics.bytesPulled += estimateSize(document);
+
+                Long updatedAt = document.getLong("updatedAt");
+                long remoteUpdatedAt = updatedAt != null ? updatedAt : 0;
+                newHighWaterMark = Math.max(newHighWaterMark, remoteUpdatedAt);
+
+                applyRemote(document, remoteUpdatedAt);
+            }
+
+            if (documents.size() < PULL_PAGE_SIZE) {
+                break;
+            }
+            lastDocument = documents.get(documents.size() - 1);
+        }
+
+        // Only advance the mark once every page has been applied
+        prefs.edit().putLong(userId + KEY_HIGH_WATER_MARK, newHighWaterMark).apply();
+    }
+
+    private void applyRemote(DocumentSnapshot document, long remoteUpdatedAt) {
+        Resume local = resumeDao.getResumeById(document.getId());
+        boolean localIsNewer = local != null
+                && local.getSyncState() != Resume.SYNC_STATE_SYNCED
+                && local.getUpdatedAt() >= remoteUpdatedAt;
+        if (localIsNewer) {
+            return;
+        }
+
+        if (FirestoreManager.isTombstone(document)) {
+            if (local != null) {
+                resumeDao.deleteById(local.getId());
+            }
+            return;
+        }
+
+        if (local == null || remoteUpdatedAt > local.getUpdatedAt()) {
+            Resume remote = FirestoreManager.documentToResume(document);
+            if (remote != null) {
+                remote.setSyncState(Resume.SYNC_STATE_SYNCED);
+                resumeDao.upsert(remote);
+            }
+        }
+    }
+
+    private static long estimateSize(DocumentSnapshot document) {
+        Map<String, Object> data = document.getData();
+        if (data == null) {
+            return 0;
+        }
+        long size = 0;
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            size += entry.getKey().length() + 1;
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                size += ((String) value).getBytes(StandardCharsets.UTF_8).length + 1;
+            } else if (value instanceof Blob) {
+                size += ((Blob) value).toBytes().length;
+            } else {
+                size += 8;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Forget what was synced for the user, at sign-out: the high-water mark and the local
+     * copies already on the server. Changes not pushed yet are kept and go up the next
+     * time the user signs in, and the next sync pulls everything again.
+     */
+    public void reset(String userId) {
+        synchronized (LOCK) {
+            prefs.edit().remove(userId + KEY_HIGH_WATER_MARK).apply();
+            resumeDao.deleteSyncedForUser(userId);
+        }
+    }
+}
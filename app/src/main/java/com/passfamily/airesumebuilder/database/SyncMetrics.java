@@ -0,0 +1,78 @@
+package com.passfamily.airesumebuilder.database;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+/**
+ * Counters for one sync run. The last run is kept in SharedPreferences for diagnostics.
+ */
+public class SyncMetrics {
+    private static final String PREFS_NAME = "sync_metrics";
+
+    int documentsPulled;
+    int documentsPushed;
+    int tombstonesPushed;
+    // Approximate: field payload sizes of the pulled documents
+    long bytesPulled;
+    long durationMs;
+    long finishedAt;
+
+    public int getDocumentsPulled() {
+        return documentsPulled;
+    }
+
+    public int getDocumentsPushed() {
+        return documentsPushed;
+    }
+
+    public int getTombstonesPushed() {
+        return tombstonesPushed;
+    }
+
+    public long getBytesPulled() {
+        return bytesPulled;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    void save(Context context) {
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .putInt("documentsPulled", documentsPulled)
+                .putInt("documentsPushed", documentsPushed)
+                .putInt("tombstonesPushed", tombstonesPushed)
+                .putLong("bytesPulled", bytesPulled)
+                .putLong("durationMs", durationMs)
+                .putLong("finishedAt", finishedAt)
+                .apply();
+    }
+
+    /**
+     * Metrics of the last completed sync, or null if none has run yet
+     */
+    public static SyncMetrics getLast(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (!prefs.contains("finishedAt")) {
+            return null;
+        }
+        SyncMetrics metrics = new SyncMetrics();
+        metrics.documentsPulled = prefs.getInt("documentsPulled", 0);
+        metrics.documentsPushed = prefs.getInt("documentsPushed", 0);
+        metrics.tombstonesPushed = prefs.getInt("tombstonesPushed", 0);
+        metrics.bytesPulled = prefs.getLong("bytesPulled", 0);
+        metrics.durationMs = prefs.getLong("durationMs", 0);
+        metrics.finishedAt = prefs.getLong("finishedAt", 0);
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return "pulled=" + documentsPulled + " (" + bytesPulled + " bytes), pushed=" + documentsPushed
+                + ", tombstones=" + tombstonesPushed + ", duration=" + durationMs + "ms";
+    }
+}
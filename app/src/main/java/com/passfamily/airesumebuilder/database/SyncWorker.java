@@ -0,0 +1,66 @@
+package com.passfamily.airesumebuilder.database;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic background sync of the signed-in user's resumes
+ */
+public class SyncWorker extends Worker {
+    private static final String TAG = "SyncWorker";
+    private static final String WORK_NAME = "resume_sync";
+    private static final long SYNC_INTERVAL_HOURS = 6;
+
+    public SyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) {
+            return Result.success();
+        }
+
+        try {
+            // The repository's engine, so this can't run alongside a foreground sync
+            ResumeRepository.getInstance(getApplicationContext()).getSyncEngine().syncNow(user.getUid());
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Background sync failed: ", e);
+            return Result.retry();
+        }
+    }
+
+    /**
+     * Schedule the periodic sync; keeps the existing schedule if one is already queued
+     */
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(SyncWorker.class, SYNC_INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .build();
+
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+}
@@ -1,7 +1,21 @@
 package com.passfamily.airesumebuilder.model;
 
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+@Entity(tableName = "resumes")
 public class Resume {
-    private String id;
+    // Local sync state, not stored in Firestore
+    public static final int SYNC_STATE_SYNCED = 0;
+    public static final int SYNC_STATE_PENDING = 1;
+    public static final int SYNC_STATE_DELETED = 2;
+    // Created on this device and not yet uploaded nor counted against the monthly limit
+    public static final int SYNC_STATE_CREATED = 3;
+
+    @PrimaryKey
+    @NonNull
+    private String id = "";
     private String userId;
     private String resumeName;
     private String name;
@@ -9,7 +23,11 @@ public class Resume {
     private String phone;
     private String github;
     private String linkedin;
-    private String portfolio;  // NEW FIELD
+    private String portfolio;
+    // Storage path of the profile photo shown in the PDF header, null for none
+    private String photoPath;
+    // Storage paths of attached certificates, one per line, null for none
+    private String certificatePaths;
     private String education;
     private String skills;
     private String experience;
@@ -19,6 +37,7 @@ public class Resume {
     private String generatedContent;
     private long createdAt;
     private long updatedAt;
+    private int syncState;
 
     public Resume() {
         this.createdAt = System.currentTimeMillis();
@@ -26,8 +45,9 @@ public class Resume {
     }
 
     // Getters and Setters
+    @NonNull
     public String getId() { return id; }
-    public void setId(String id) { this.id = id; }
+    public void setId(@NonNull String id) { this.id = id; }
 
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
@@ -53,6 +73,12 @@ public class Resume {
     public String getPortfolio() { return portfolio; }
     public void setPortfolio(String portfolio) { this.portfolio = portfolio; }
 
+    public String getPhotoPath() { return photoPath; }
+    public void setPhotoPath(String photoPath) { this.photoPath = photoPath; }
+
+    public String getCertificatePaths() { return certificatePaths; }
+    public void setCertificatePaths(String certificatePaths) { this.certificatePaths = certificatePaths; }
+
     public String getEducation() { return education; }
     public void setEducation(String education) { this.education = education; }
 
@@ -79,4 +105,7 @@ public class Resume {
 
     public long getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
-}
\ No newline at end of file
+
+    public int getSyncState() { return syncState; }
+    public void setSyncState(int syncState) { this.syncState = syncState; }
+}
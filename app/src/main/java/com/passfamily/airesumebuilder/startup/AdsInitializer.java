@@ -0,0 +1,31 @@
+package com.passfamily.airesumebuilder.startup;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+
+import com.passfamily.airesumebuilder.utils.AdHelper;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Initializes the ads SDK once the first screen is up; ads wait for it through
+ * {@link AdHelper#whenInitialized}
+ */
+public class AdsInitializer implements Initializer<Void> {
+
+    @Override
+    public Void create(@NonNull Context context) {
+        Context appContext = context.getApplicationContext();
+        StartupTasks.runAfterFirstFrame(appContext, "Ads", () -> AdHelper.initializeMobileAds(appContext));
+        return null;
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,30 @@
+package com.passfamily.airesumebuilder.startup;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+
+import com.google.firebase.auth.FirebaseAuth;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Loads the stored sign-in in the background, so the splash screen's auth check
+ * doesn't read it from disk on the main thread
+ */
+public class AuthInitializer implements Initializer<Void> {
+
+    @Override
+    public Void create(@NonNull Context context) {
+        StartupTasks.runInBackground("Auth", () -> FirebaseAuth.getInstance().getCurrentUser());
+        return null;
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.singletonList(FirebaseInitializer.class);
+    }
+}
@@ -0,0 +1,36 @@
+package com.passfamily.airesumebuilder.startup;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+
+import com.google.firebase.FirebaseApp;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The default Firebase app, which every other Firebase initializer depends on
+ */
+public class FirebaseInitializer implements Initializer<FirebaseApp> {
+
+    @NonNull
+    @Override
+    public FirebaseApp create(@NonNull Context context) {
+        FirebaseApp[] app = new FirebaseApp[1];
+        StartupTasks.measure("Firebase", () -> {
+            // Usually already done by Firebase's own provider
+            app[0] = FirebaseApp.getApps(context).isEmpty()
+                    ? FirebaseApp.initializeApp(context)
+                    : FirebaseApp.getInstance();
+        });
+        return app[0];
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,29 @@
+package com.passfamily.airesumebuilder.startup;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Creates the Firestore instance in the background, alongside Auth
+ */
+public class FirestoreInitializer implements Initializer<Void> {
+
+    @Override
+    public Void create(@NonNull Context context) {
+        StartupTasks.runInBackground("Firestore", FirebaseFirestore::getInstance);
+        return null;
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.singletonList(FirebaseInitializer.class);
+    }
+}
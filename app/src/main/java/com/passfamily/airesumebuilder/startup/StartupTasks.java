@@ -0,0 +1,92 @@
+package com.passfamily.airesumebuilder.startup;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+import com.passfamily.airesumebuilder.activity.SplashActivity;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Where the initializers run their work: in the background, either straight away or
+ * once the first real screen has drawn. Each task's duration is logged.
+ */
+final class StartupTasks {
+    private static final String TAG = "StartupTasks";
+
+    // Enough for the independent inits to overlap without crowding the main thread's core
+    private static final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private StartupTasks() {
+    }
+
+    static void runInBackground(String name, Runnable task) {
+        executor.execute(() -> measure(name, task));
+    }
+
+    /**
+     * Run the task in the background after the first frame of the first screen other
+     * than the splash, which only shows the system splash screen
+     */
+    static void runAfterFirstFrame(Context context, String name, Runnable task) {
+        Application application = (Application) context.getApplicationContext();
+        application.registerActivityLifecycleCallbacks(new Application.ActivityLifecycleCallbacks() {
+            @Override
+            public void onActivityResumed(@NonNull Activity activity) {
+                if (activity instanceof SplashActivity) {
+                    return;
+                }
+                application.unregisterActivityLifecycleCallbacks(this);
+                // The frame callback runs as the frame starts; posting from it lands after the draw
+                Choreographer.getInstance().postFrameCallback(frameTimeNanos ->
+                        mainHandler.post(() -> runInBackground(name, task)));
+            }
+
+            @Override
+            public void onActivityCreated(@NonNull Activity activity, Bundle savedInstanceState) {
+            }
+
+            @Override
+            public void onActivityStarted(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivityPaused(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivityStopped(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+            }
+
+            @Override
+            public void onActivityDestroyed(@NonNull Activity activity) {
+            }
+        });
+    }
+
+    static void measure(String name, Runnable task) {
+        long start = SystemClock.elapsedRealtime();
+        try {
+            task.run();
+        } catch (Exception e) {
+            Log.e(TAG, name + " failed: ", e);
+        }
+        Log.d(TAG, name + " took " + (SystemClock.elapsedRealtime() - start) + "ms on "
+                + Thread.currentThread().getName());
+    }
+}
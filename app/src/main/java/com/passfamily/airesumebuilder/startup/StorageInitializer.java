@@ -0,0 +1,31 @@
+package com.passfamily.airesumebuilder.startup;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+
+import com.passfamily.airesumebuilder.utils.StorageHelper;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sets up Storage once the first screen is up, and from then on finishes uploads cut off
+ * by a restart or a lost connection
+ */
+public class StorageInitializer implements Initializer<Void> {
+
+    @Override
+    public Void create(@NonNull Context context) {
+        Context appContext = context.getApplicationContext();
+        StartupTasks.runAfterFirstFrame(appContext, "Storage", () -> StorageHelper.resumeOnReconnect(appContext));
+        return null;
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.singletonList(FirebaseInitializer.class);
+    }
+}
@@ -1,21 +1,20 @@
 package com.passfamily.airesumebuilder.utils;
 
 import android.app.Activity;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 import android.view.View;
 import android.widget.LinearLayout;
 
-import androidx.annotation.NonNull;
-
-import com.google.android.gms.ads.AdError;
 import com.google.android.gms.ads.AdRequest;
 import com.google.android.gms.ads.AdSize;
 import com.google.android.gms.ads.AdView;
-import com.google.android.gms.ads.FullScreenContentCallback;
-import com.google.android.gms.ads.LoadAdError;
 import com.google.android.gms.ads.MobileAds;
-import com.google.android.gms.ads.interstitial.InterstitialAd;
-import com.google.android.gms.ads.interstitial.InterstitialAdLoadCallback;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class AdHelper {
     private static final String TAG = "AdHelper";
@@ -24,17 +23,48 @@ public class AdHelper {
     public static final String INTERSTITIAL_AD_UNIT_ID = "ca-app-pub-3300125462328011/3036696605";
 
     private static boolean isMobileAdsInitialized = false;
+    private static boolean isMobileAdsInitializing = false;
+    private static final List<Runnable> afterInitialization = new ArrayList<>();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     /**
-     * Initialize Google Mobile Ads SDK
+     * Initialize Google Mobile Ads SDK. Safe to call from a background thread.
      */
-    public static void initializeMobileAds(Activity activity) {
-        if (!isMobileAdsInitialized) {
-            MobileAds.initialize(activity, initializationStatus -> {
+    public static void initializeMobileAds(Context context) {
+        synchronized (AdHelper.class) {
+            if (isMobileAdsInitialized || isMobileAdsInitializing) {
+                return;
+            }
+            isMobileAdsInitializing = true;
+        }
+        MobileAds.initialize(context.getApplicationContext(), initializationStatus -> {
+            List<Runnable> actions;
+            synchronized (AdHelper.class) {
                 isMobileAdsInitialized = true;
-                Log.d(TAG, "Google Mobile Ads initialized");
-            });
+                actions = new ArrayList<>(afterInitialization);
+                afterInitialization.clear();
+            }
+            Log.d(TAG, "Google Mobile Ads initialized");
+            // One interstitial is kept ready for the whole app
+            mainHandler.post(() -> InterstitialAdPool.preload(context));
+            for (Runnable action : actions) {
+                mainHandler.post(action);
+            }
+        });
+    }
+
+    /**
+     * Run on the main thread once the SDK is initialized, right away if it already is.
+     * Loading an ad earlier would initialize the SDK on the spot, on the main thread.
+     */
+    public static void whenInitialized(Runnable action) {
+        synchronized (AdHelper.class) {
+            if (!isMobileAdsInitialized) {
+                afterInitialization.add(action);
+                return;
+            }
         }
+        action.run();
     }
 
     /**
@@ -60,77 +90,18 @@ public class AdHelper {
     }
 
     /**
-     * Load interstitial ad
+     * Show the app's preloaded interstitial, then run next on the main thread. Never
+     * waits for an ad: if none is ready, next runs at once and a new one is loaded.
      */
-    public static void loadInterstitialAd(Activity activity, InterstitialAdCallback callback) {
-        AdRequest adRequest = new AdRequest.Builder().build();
-
-        InterstitialAd.load(activity, INTERSTITIAL_AD_UNIT_ID, adRequest,
-                new InterstitialAdLoadCallback() {
-                    @Override
-                    public void onAdLoaded(@NonNull InterstitialAd interstitialAd) {
-                        Log.d(TAG, "Interstitial ad loaded");
-                        if (callback != null) {
-                            callback.onAdLoaded(interstitialAd);
-                        }
-                    }
-
-                    @Override
-                    public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
-                        Log.e(TAG, "Interstitial ad failed to load: " + loadAdError.getMessage());
-                        if (callback != null) {
-                            callback.onAdFailedToLoad(loadAdError.getMessage());
-                        }
-                    }
-                });
-    }
-
-    /**
-     * Show interstitial ad
-     */
-    public static void showInterstitialAd(Activity activity, InterstitialAd interstitialAd,
-                                          InterstitialAdShowCallback callback) {
-        if (interstitialAd != null) {
-            interstitialAd.setFullScreenContentCallback(new FullScreenContentCallback() {
-                @Override
-                public void onAdDismissedFullScreenContent() {
-                    Log.d(TAG, "Interstitial ad dismissed");
-                    if (callback != null) {
-                        callback.onAdDismissed();
-                    }
-                }
-
-                @Override
-                public void onAdFailedToShowFullScreenContent(@NonNull AdError adError) {
-                    Log.e(TAG, "Interstitial ad failed to show: " + adError.getMessage());
-                    if (callback != null) {
-                        callback.onAdFailedToShow(adError.getMessage());
-                    }
-                }
-
-                @Override
-                public void onAdShowedFullScreenContent() {
-                    Log.d(TAG, "Interstitial ad showed");
-                }
-            });
-
-            interstitialAd.show(activity);
-        } else {
-            Log.e(TAG, "Interstitial ad is null");
-            if (callback != null) {
-                callback.onAdFailedToShow("Ad not loaded");
-            }
+    public static void showInterstitialAd(Activity activity, Runnable next) {
+        boolean initialized;
+        synchronized (AdHelper.class) {
+            initialized = isMobileAdsInitialized;
         }
-    }
-
-    // Callback interfaces
-    public interface InterstitialAdCallback {
-        void onAdLoaded(InterstitialAd interstitialAd);
-        void onAdFailedToLoad(String error);
-    }
-
-    public interface InterstitialAdShowCallback {
-        void onAdDismissed();
-        void onAdFailedToShow(String error);
+        if (!initialized) {
+            next.run();
+            return;
+        }
+        InterstitialAdPool.show(activity, next);
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.passfamily.airesumebuilder.utils;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Shared date formatting. SimpleDateFormat is expensive to create and not thread-safe,
+ * so each thread keeps one formatter per pattern, locale and time zone.
+ */
+public final class DateFormats {
+
+    public static final String PATTERN_DATE = "MMM dd, yyyy";
+    public static final String PATTERN_DATE_TIME = "MMM dd, yyyy 'at' hh:mm a";
+    public static final String PATTERN_MONTH = "MMMM yyyy";
+
+    private static final ThreadLocal<Map<String, SimpleDateFormat>> FORMATTERS =
+            new ThreadLocal<Map<String, SimpleDateFormat>>() {
+                @Override
+                protected Map<String, SimpleDateFormat> initialValue() {
+                    return new HashMap<>();
+                }
+            };
+
+    private DateFormats() {
+    }
+
+    public static String formatDate(long timestamp) {
+        return format(PATTERN_DATE, timestamp);
+    }
+
+    public static String formatDateTime(long timestamp) {
+        return format(PATTERN_DATE_TIME, timestamp);
+    }
+
+    public static String format(String pattern, long timestamp) {
+        Locale locale = Locale.getDefault();
+        TimeZone timeZone = TimeZone.getDefault();
+        String key = pattern + '|' + locale + '|' + timeZone.getID();
+
+        Map<String, SimpleDateFormat> formatters = FORMATTERS.get();
+        SimpleDateFormat formatter = formatters.get(key);
+        if (formatter == null) {
+            formatter = new SimpleDateFormat(pattern, locale);
+            formatter.setTimeZone(timeZone);
+            formatters.put(key, formatter);
+        }
+        return formatter.format(new Date(timestamp));
+    }
+
+    /**
+     * Identifies the current locale and time zone. Text formatted earlier is stale once this changes.
+     */
+    public static String settingsKey() {
+        return Locale.getDefault() + "|" + TimeZone.getDefault().getID();
+    }
+}
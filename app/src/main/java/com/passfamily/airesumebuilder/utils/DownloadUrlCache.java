@@ -0,0 +1,91 @@
+package com.passfamily.airesumebuilder.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Download URLs of uploaded files, keyed by storage path, so showing or re-attaching a
+ * file doesn't ask the server for its URL each time. Kept in memory and in
+ * SharedPreferences; an entry is dropped when it expires or the URL stops working.
+ * Safe to use from any thread.
+ */
+class DownloadUrlCache {
+    private static final String TAG = "DownloadUrlCache";
+    private static final String PREFS_NAME = "download_urls";
+
+    // Download URLs last until their token is revoked; re-check them now and then anyway
+    private static final long EXPIRY_MS = 7L * 24 * 60 * 60 * 1000;
+
+    private static DownloadUrlCache instance;
+
+    private static class Entry {
+        String url;
+        long expiresAt;
+    }
+
+    private final SharedPreferences prefs;
+    private final Gson gson = new Gson();
+    private final Map<String, Entry> memory = new HashMap<>();
+
+    static synchronized DownloadUrlCache get(Context context) {
+        if (instance == null) {
+            instance = new DownloadUrlCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private DownloadUrlCache(Context context) {
+        prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * The cached URL, or null if there is none or it has expired
+     */
+    synchronized String getUrl(String storagePath) {
+        Entry entry = memory.get(storagePath);
+        if (entry == null) {
+            entry = parse(prefs.getString(storagePath, null));
+            if (entry == null) {
+                return null;
+            }
+            memory.put(storagePath, entry);
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            remove(storagePath);
+            return null;
+        }
+        return entry.url;
+    }
+
+    synchronized void put(String storagePath, String url) {
+        Entry entry = new Entry();
+        entry.url = url;
+        entry.expiresAt = System.currentTimeMillis() + EXPIRY_MS;
+        memory.put(storagePath, entry);
+        prefs.edit().putString(storagePath, gson.toJson(entry)).apply();
+    }
+
+    synchronized void remove(String storagePath) {
+        memory.remove(storagePath);
+        prefs.edit().remove(storagePath).apply();
+    }
+
+    private Entry parse(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return gson.fromJson(json, Entry.class);
+        } catch (JsonSyntaxException e) {
+            Log.e(TAG, "Dropping unreadable entry: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.passfamily.airesumebuilder.utils;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.exifinterface.media.ExifInterface;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shrinks a picked or captured photo before it is uploaded. The image is decoded already
+ * subsampled, so the full-size bitmap is never in memory, turned upright using its EXIF
+ * orientation, scaled to the target size and saved as a JPEG within a byte budget.
+ */
+public class ImagePreprocessor {
+    private static final String TAG = "ImagePreprocessor";
+
+    // The profile photo is only shown as a small header image
+    public static final int PROFILE_PHOTO_MAX_DIMENSION = 512;
+    public static final int PROFILE_PHOTO_MAX_BYTES = 100 * 1024;
+
+    private static final int MAX_QUALITY = 90;
+    private static final int MIN_QUALITY = 50;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public interface Callback {
+        void onSuccess(File output);
+        void onError(String error);
+    }
+
+    /**
+     * Process the image on a background thread. The callback runs on the main thread;
+     * the output file is in the cache directory and can be deleted after use.
+     */
+    public static void process(Context context, Uri source, int maxDimension, int maxBytes, Callback callback) {
+        Context appContext = context.getApplicationContext();
+        executor.execute(() -> {
+            try {
+                File output = processNow(appContext, source, maxDimension, maxBytes);
+                mainHandler.post(() -> callback.onSuccess(output));
+            } catch (Exception | OutOfMemoryError e) {
+                Log.e(TAG, "Could not process image: " + e.getMessage());
+                mainHandler.post(() -> callback.onError("Could not process image"));
+            }
+        });
+    }
+
+    private static File processNow(Context context, Uri source, int maxDimension, int maxBytes) throws IOException {
+        ContentResolver resolver = context.getContentResolver();
+
+        // Read the size only
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = resolver.openInputStream(source)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Not an image");
+        }
+
+        // Largest power-of-two subsampling that still leaves at least the target size
+        int sampleSize = 1;
+        while (Math.max(bounds.outWidth, bounds.outHeight) / (sampleSize * 2) >= maxDimension) {
+            sampleSize *= 2;
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        Bitmap decoded;
+        try (InputStream in = resolver.openInputStream(source)) {
+            decoded = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (decoded == null) {
+            throw new IOException("Could not decode image");
+        }
+
+        int orientation;
+        try (InputStream in = resolver.openInputStream(source)) {
+            orientation = new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        }
+
+        Bitmap bitmap = transform(decoded, orientation, maxDimension);
+        byte[] encoded = encode(bitmap, maxBytes);
+
+        File output = new File(context.getCacheDir(), "upload_" + System.currentTimeMillis() + ".jpg");
+        try (FileOutputStream out = new FileOutputStream(output)) {
+            out.write(encoded);
+        }
+        Log.d(TAG, "Image " + bounds.outWidth + "x" + bounds.outHeight + " reduced to " + encoded.length + " bytes");
+        return output;
+    }
+
+    /**
+     * Rotate or mirror to match the EXIF orientation and scale down in one pass
+     */
+    private static Bitmap transform(Bitmap source, int orientation, int maxDimension) {
+        Matrix matrix = new Matrix();
+        float scale = Math.min(1f, (float) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        matrix.postScale(scale, scale);
+
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.postRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.postScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.postRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.postRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.postRotate(-90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.postRotate(-90);
+                break;
+            default:
+                break;
+        }
+
+        if (matrix.isIdentity()) {
+            return source;
+        }
+        Bitmap result = Bitmap.createBitmap(source, 0, 0, source.getWidth(), source.getHeight(), matrix, true);
+        if (result != source) {
+            source.recycle();
+        }
+        return result;
+    }
+
+    /**
+     * JPEG at the highest quality that fits the budget. If even the lowest quality is too
+     * big the image is scaled down further. The bitmap is recycled.
+     */
+    private static byte[] encode(Bitmap bitmap, int maxBytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(maxBytes);
+        while (true) {
+            int low = MIN_QUALITY;
+            int high = MAX_QUALITY;
+            byte[] best = null;
+            // Binary search over quality, a handful of encodes at most
+            while (low <= high) {
+                int quality = (low + high) / 2;
+                out.reset();
+                bitmap.compress(Bitmap.CompressFormat.JPEG, quality, out);
+                if (out.size() <= maxBytes) {
+                    best = out.toByteArray();
+                    low = quality + 1;
+                } else {
+                    high = quality - 1;
+                }
+            }
+            if (best != null || Math.max(bitmap.getWidth(), bitmap.getHeight()) < 64) {
+                if (best == null) {
+                    out.reset();
+                    bitmap.compress(Bitmap.CompressFormat.JPEG, MIN_QUALITY, out);
+                    best = out.toByteArray();
+                }
+                bitmap.recycle();
+                return best;
+            }
+
+            Bitmap smaller = Bitmap.createScaledBitmap(bitmap,
+                    bitmap.getWidth() * 3 / 4, bitmap.getHeight() * 3 / 4, true);
+            if (smaller != bitmap) {
+                bitmap.recycle();
+            }
+            bitmap = smaller;
+        }
+    }
+}
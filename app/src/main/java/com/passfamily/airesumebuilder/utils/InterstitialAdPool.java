@@ -0,0 +1,138 @@
+package com.passfamily.airesumebuilder.utils;
+
+import android.app.Activity;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.ads.AdError;
+import com.google.android.gms.ads.AdRequest;
+import com.google.android.gms.ads.FullScreenContentCallback;
+import com.google.android.gms.ads.LoadAdError;
+import com.google.android.gms.ads.interstitial.InterstitialAd;
+import com.google.android.gms.ads.interstitial.InterstitialAdLoadCallback;
+
+/**
+ * Keeps one interstitial loaded for the whole app, so an activity never has to load
+ * its own. The ad is replaced once it is shown and before it goes stale after an hour.
+ * Used only from the main thread, through {@link AdHelper}.
+ */
+class InterstitialAdPool {
+    private static final String TAG = "InterstitialAdPool";
+
+    // Interstitials may no longer be shown an hour after they were loaded
+    private static final long AD_EXPIRY_MS = 60 * 60 * 1000;
+
+    private static final long RETRY_DELAY_MS = 30 * 1000;
+    private static final long MAX_RETRY_DELAY_MS = 10 * 60 * 1000;
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private static Context appContext;
+    private static InterstitialAd ad;
+    private static long loadedAt;
+    private static boolean loading;
+    private static int failedLoads;
+
+    private static final Runnable expire = () -> {
+        Log.d(TAG, "Interstitial ad expired");
+        ad = null;
+        preload(appContext);
+    };
+
+    private InterstitialAdPool() {
+    }
+
+    /**
+     * Load an ad unless one is ready or on its way
+     */
+    static void preload(Context context) {
+        appContext = context.getApplicationContext();
+        if (loading || isFresh()) {
+            return;
+        }
+        loading = true;
+        mainHandler.removeCallbacks(expire);
+
+        InterstitialAd.load(appContext, AdHelper.INTERSTITIAL_AD_UNIT_ID, new AdRequest.Builder().build(),
+                new InterstitialAdLoadCallback() {
+                    @Override
+                    public void onAdLoaded(@NonNull InterstitialAd interstitialAd) {
+                        Log.d(TAG, "Interstitial ad loaded");
+                        loading = false;
+                        failedLoads = 0;
+                        ad = interstitialAd;
+                        loadedAt = SystemClock.elapsedRealtime();
+                        mainHandler.postDelayed(expire, AD_EXPIRY_MS);
+                    }
+
+                    @Override
+                    public void onAdFailedToLoad(@NonNull LoadAdError loadAdError) {
+                        Log.e(TAG, "Interstitial ad failed to load: " + loadAdError.getMessage());
+                        loading = false;
+                        ad = null;
+                        // Back off so a device without fill doesn't keep requesting
+                        long delay = Math.min(RETRY_DELAY_MS << Math.min(failedLoads, 5), MAX_RETRY_DELAY_MS);
+                        failedLoads++;
+                        mainHandler.postDelayed(() -> preload(appContext), delay);
+                    }
+                });
+    }
+
+    /**
+     * Show the pooled ad if there is one, then run next. Without a ready ad next runs
+     * straight away.
+     */
+    static void show(Activity activity, Runnable next) {
+        if (!isFresh() || activity.isFinishing() || activity.isDestroyed()) {
+            Log.d(TAG, "No interstitial ad ready");
+            next.run();
+            preload(activity);
+            return;
+        }
+
+        InterstitialAd interstitialAd = ad;
+        ad = null;
+        mainHandler.removeCallbacks(expire);
+
+        interstitialAd.setFullScreenContentCallback(new FullScreenContentCallback() {
+            private boolean done;
+
+            @Override
+            public void onAdShowedFullScreenContent() {
+                Log.d(TAG, "Interstitial ad showed");
+                // Load the next one while this is on screen
+                preload(activity);
+            }
+
+            @Override
+            public void onAdDismissedFullScreenContent() {
+                Log.d(TAG, "Interstitial ad dismissed");
+                proceed();
+            }
+
+            @Override
+            public void onAdFailedToShowFullScreenContent(@NonNull AdError adError) {
+                Log.e(TAG, "Interstitial ad failed to show: " + adError.getMessage());
+                proceed();
+                preload(activity);
+            }
+
+            private void proceed() {
+                if (!done) {
+                    done = true;
+                    next.run();
+                }
+            }
+        });
+        interstitialAd.show(activity);
+    }
+
+    private static boolean isFresh() {
+        return ad != null && SystemClock.elapsedRealtime() - loadedAt < AD_EXPIRY_MS;
+    }
+}
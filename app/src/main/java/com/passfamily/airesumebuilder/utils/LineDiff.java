@@ -0,0 +1,175 @@
+package com.passfamily.airesumebuilder.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Line-level diff between two texts (Myers' algorithm).
+ * The result is a list of hunks, so its size grows with the edit rather than the document.
+ */
+public class LineDiff {
+
+    /**
+     * Replace {@code deleteCount} lines starting at old line {@code at} with {@code insertLines}
+     */
+    public static class Hunk {
+        public final int at;
+        public final int deleteCount;
+        public final List<String> insertLines;
+
+        public Hunk(int at, int deleteCount, List<String> insertLines) {
+            this.at = at;
+            this.deleteCount = deleteCount;
+            this.insertLines = insertLines;
+        }
+    }
+
+    public static List<Hunk> diff(String oldText, String newText) {
+        String[] a = splitLines(oldText);
+        String[] b = splitLines(newText);
+
+        // Common prefix and suffix never need to go through the diff
+        int prefix = 0;
+        while (prefix < a.length && prefix < b.length && a[prefix].equals(b[prefix])) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < a.length - prefix && suffix < b.length - prefix
+                && a[a.length - 1 - suffix].equals(b[b.length - 1 - suffix])) {
+            suffix++;
+        }
+
+        int n = a.length - prefix - suffix;
+        int m = b.length - prefix - suffix;
+        if (n == 0 && m == 0) {
+            return new ArrayList<>();
+        }
+
+        // Edit ops in old/new order: 0 = equal, 1 = delete a[x], 2 = insert b[y]
+        List<int[]> ops = shortestEdit(a, b, prefix, n, m);
+
+        List<Hunk> hunks = new ArrayList<>();
+        int oldIndex = prefix;
+        int i = 0;
+        while (i < ops.size()) {
+            if (ops.get(i)[0] == 0) {
+                oldIndex++;
+                i++;
+                continue;
+            }
+            int start = oldIndex;
+            int deleteCount = 0;
+            List<String> inserts = new ArrayList<>();
+            while (i < ops.size() && ops.get(i)[0] != 0) {
+                int[] op = ops.get(i);
+                if (op[0] == 1) {
+                    deleteCount++;
+                    oldIndex++;
+                } else {
+                    inserts.add(b[op[1]]);
+                }
+                i++;
+            }
+            hunks.add(new Hunk(start, deleteCount, inserts));
+        }
+        return hunks;
+    }
+
+    public static String apply(String oldText, List<Hunk> hunks) {
+        String[] a = splitLines(oldText);
+        List<String> result = new ArrayList<>(a.length);
+        int cursor = 0;
+        for (Hunk hunk : hunks) {
+            for (int i = cursor; i < hunk.at; i++) {
+                result.add(a[i]);
+            }
+            result.addAll(hunk.insertLines);
+            cursor = hunk.at + hunk.deleteCount;
+        }
+        for (int i = cursor; i < a.length; i++) {
+            result.add(a[i]);
+        }
+        return join(result);
+    }
+
+    private static List<int[]> shortestEdit(String[] a, String[] b, int offsetIndex, int n, int m) {
+        int max = n + m;
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+
+        int finalD = 0;
+        outer:
+        for (int d = 0; d <= max; d++) {
+            trace.add(v.clone());
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+                    x = v[offset + k + 1];
+                } else {
+                    x = v[offset + k - 1] + 1;
+                }
+                int y = x - k;
+                while (x < n && y < m && a[offsetIndex + x].equals(b[offsetIndex + y])) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    finalD = d;
+                    break outer;
+                }
+            }
+        }
+
+        // Walk the trace backwards to recover the edit script
+        List<int[]> ops = new ArrayList<>();
+        int x = n;
+        int y = m;
+        for (int d = finalD; d >= 0; d--) {
+            int[] vd = trace.get(d);
+            int k = x - y;
+            int prevK;
+            if (k == -d || (k != d && vd[offset + k - 1] < vd[offset + k + 1])) {
+                prevK = k + 1;
+            } else {
+                prevK = k - 1;
+            }
+            int prevX = vd[offset + prevK];
+            int prevY = prevX - prevK;
+
+            while (x > prevX && y > prevY) {
+                ops.add(new int[]{0, offsetIndex + x - 1});
+                x--;
+                y--;
+            }
+            if (d > 0) {
+                if (x == prevX) {
+                    ops.add(new int[]{2, offsetIndex + y - 1});
+                } else {
+                    ops.add(new int[]{1, offsetIndex + x - 1});
+                }
+            }
+            x = prevX;
+            y = prevY;
+        }
+        Collections.reverse(ops);
+        return ops;
+    }
+
+    private static String[] splitLines(String text) {
+        return (text != null ? text : "").split("\n", -1);
+    }
+
+    private static String join(List<String> lines) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            if (i > 0) {
+                builder.append('\n');
+            }
+            builder.append(lines.get(i));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,297 @@
+package com.passfamily.airesumebuilder.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds web addresses, email addresses and GitHub/LinkedIn profiles in resume text.
+ * The text is walked once; tokens are tracked as index ranges, so nothing is copied
+ * except the URL of each link found. The app screen and the PDF both use this, so a
+ * link in one is a link in the other.
+ */
+public final class LinkScanner {
+
+    public static final int TYPE_WEB = 0;
+    public static final int TYPE_EMAIL = 1;
+    public static final int TYPE_GITHUB = 2;
+    public static final int TYPE_LINKEDIN = 3;
+
+    private static final String GITHUB_BASE = "https://github.com/";
+    private static final String LINKEDIN_BASE = "https://linkedin.com/in/";
+
+    // Top-level domains accepted for addresses written without http://
+    private static final String[] KNOWN_TLDS = {
+            "com", "org", "net", "in", "io", "dev", "edu", "gov", "co", "me",
+            "app", "ai", "info", "tech", "us", "uk", "xyz"
+    };
+
+    // Characters that end a sentence rather than an address
+    private static final String TRAILING_PUNCTUATION = ".,;:!?)]}'\"";
+
+    private static final int CACHE_SIZE = 16;
+
+    // Access ordered, so the least recently used text is dropped first
+    private static final Map<String, List<Link>> cache =
+            new LinkedHashMap<String, List<Link>>(CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<Link>> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+    public static final class Link {
+        public final int start;
+        public final int end;
+        public final int type;
+        public final String url;
+
+        Link(int start, int end, int type, String url) {
+            this.start = start;
+            this.end = end;
+            this.type = type;
+            this.url = url;
+        }
+    }
+
+    private LinkScanner() {
+    }
+
+    /**
+     * Links in the content, cached for recently scanned texts. The returned list is shared
+     * and must not be modified.
+     */
+    public static List<Link> scanCached(String content) {
+        List<Link> links;
+        synchronized (cache) {
+            links = cache.get(content);
+        }
+        if (links == null) {
+            links = Collections.unmodifiableList(scan(content));
+            synchronized (cache) {
+                cache.put(content, links);
+            }
+        }
+        return links;
+    }
+
+    /**
+     * Links in the text, in order of position
+     */
+    public static List<Link> scan(CharSequence text) {
+        List<Link> links = new ArrayList<>();
+        int length = text.length();
+        // Set when the previous token was a "GitHub:" or "LinkedIn:" label
+        int labelType = -1;
+
+        int i = 0;
+        while (i < length) {
+            while (i < length && Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(text.charAt(i))) {
+                i++;
+            }
+            int end = i;
+            if (start == end) {
+                break;
+            }
+
+            int label = labelType(text, start, end);
+            if (label >= 0) {
+                labelType = label;
+                continue;
+            }
+
+            // Leave out wrapping brackets and sentence punctuation
+            while (start < end && (text.charAt(start) == '(' || text.charAt(start) == '<')) {
+                start++;
+            }
+            while (end > start && TRAILING_PUNCTUATION.indexOf(text.charAt(end - 1)) >= 0) {
+                end--;
+            }
+
+            Link link = start < end ? classify(text, start, end, labelType) : null;
+            if (link != null) {
+                links.add(link);
+            }
+            labelType = -1;
+        }
+        return links;
+    }
+
+    // ========== URL HELPERS ==========
+
+    /**
+     * Profile URL for a GitHub username or URL as entered in the form
+     */
+    public static String githubUrl(String value) {
+        return value.startsWith("http") ? value : GITHUB_BASE + value;
+    }
+
+    public static String linkedinUrl(String value) {
+        return value.startsWith("http") ? value : LINKEDIN_BASE + value;
+    }
+
+    public static String webUrl(String value) {
+        return value.startsWith("http") ? value : "https://" + value;
+    }
+
+    // ========== CLASSIFICATION ==========
+
+    private static Link classify(CharSequence text, int start, int end, int labelType) {
+        int at = -1;
+        int atCount = 0;
+        int lastDot = -1;
+        int firstSlash = -1;
+        boolean hasScheme = false;
+
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '@') {
+                at = i;
+                atCount++;
+            } else if (c == '.') {
+                if (firstSlash < 0) {
+                    lastDot = i;
+                }
+            } else if (c == '/' && firstSlash < 0) {
+                if (i + 1 < end && text.charAt(i + 1) == '/' && i > start && text.charAt(i - 1) == ':') {
+                    hasScheme = true;
+                    // Skip "//" so the host's dots are still counted
+                    i++;
+                    continue;
+                }
+                firstSlash = i;
+            }
+        }
+
+        if (hasScheme) {
+            if (startsWithIgnoreCase(text, start, end, "http://") || startsWithIgnoreCase(text, start, end, "https://")) {
+                return new Link(start, end, typeForHost(text, start, end), text.subSequence(start, end).toString());
+            }
+            return null;
+        }
+
+        if (atCount == 1 && at > start && at < end - 1) {
+            return isEmail(text, start, at, end)
+                    ? new Link(start, end, TYPE_EMAIL, "mailto:" + text.subSequence(start, end))
+                    : null;
+        }
+
+        if (atCount == 0 && lastDot > start && hasKnownTld(text, lastDot + 1, firstSlash >= 0 ? firstSlash : end)
+                && isHost(text, start, firstSlash >= 0 ? firstSlash : end)) {
+            return new Link(start, end, typeForHost(text, start, end), "https://" + text.subSequence(start, end));
+        }
+
+        // A bare username right after a "GitHub:" or "LinkedIn:" label
+        if (labelType >= 0 && isHandle(text, start, end)) {
+            String handle = text.subSequence(start, end).toString();
+            return new Link(start, end, labelType,
+                    labelType == TYPE_GITHUB ? GITHUB_BASE + handle : LINKEDIN_BASE + handle);
+        }
+        return null;
+    }
+
+    private static int labelType(CharSequence text, int start, int end) {
+        if (equalsIgnoreCase(text, start, end, "github:")) {
+            return TYPE_GITHUB;
+        }
+        if (equalsIgnoreCase(text, start, end, "linkedin:")) {
+            return TYPE_LINKEDIN;
+        }
+        return -1;
+    }
+
+    private static int typeForHost(CharSequence text, int start, int end) {
+        if (containsIgnoreCase(text, start, end, "github.com")) {
+            return TYPE_GITHUB;
+        }
+        if (containsIgnoreCase(text, start, end, "linkedin.com")) {
+            return TYPE_LINKEDIN;
+        }
+        return TYPE_WEB;
+    }
+
+    private static boolean isEmail(CharSequence text, int start, int at, int end) {
+        for (int i = start; i < at; i++) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '.' && c != '_' && c != '-' && c != '+') {
+                return false;
+            }
+        }
+        int dot = -1;
+        for (int i = at + 1; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                dot = i;
+            } else if (!Character.isLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        return dot > at + 1 && dot < end - 1;
+    }
+
+    private static boolean isHost(CharSequence text, int start, int end) {
+        char previous = '.';
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                if (previous == '.') {
+                    return false;
+                }
+            } else if (!Character.isLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+            previous = c;
+        }
+        return previous != '.';
+    }
+
+    private static boolean isHandle(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '-' && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasKnownTld(CharSequence text, int start, int end) {
+        for (String tld : KNOWN_TLDS) {
+            if (equalsIgnoreCase(text, start, end, tld)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean equalsIgnoreCase(CharSequence text, int start, int end, String value) {
+        return end - start == value.length() && startsWithIgnoreCase(text, start, end, value);
+    }
+
+    private static boolean startsWithIgnoreCase(CharSequence text, int start, int end, String value) {
+        if (end - start < value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.toLowerCase(text.charAt(start + i)) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsIgnoreCase(CharSequence text, int start, int end, String value) {
+        for (int i = start; i <= end - value.length(); i++) {
+            if (startsWithIgnoreCase(text, i, end, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,9 +2,12 @@ package com.passfamily.airesumebuilder.utils;
 
 import android.content.Context;
 import android.os.Environment;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.image.ImageData;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
@@ -14,12 +17,14 @@ import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.action.PdfAction;
 import com.itextpdf.kernel.pdf.canvas.draw.SolidLine;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Image;
 import com.itextpdf.layout.element.LineSeparator;
 import com.itextpdf.layout.element.Link;
 import com.itextpdf.layout.element.List;
 import com.itextpdf.layout.element.ListItem;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Text;
+import com.itextpdf.layout.properties.HorizontalAlignment;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.passfamily.airesumebuilder.model.Resume;
 
@@ -29,11 +34,19 @@ import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class PDFGenerator {
 
     private static final String TAG = "PDFGenerator";
 
+    // Printed size of the header photo
+    private static final float PHOTO_SIZE_POINTS = 64;
+
+    private static final ExecutorService pdfExecutor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
     public interface PDFCallback {
         void onSuccess(String filePath);
         void onError(String error);
@@ -45,18 +58,22 @@ public class PDFGenerator {
     public static void generateStandardPDF(Context context, Resume resume, PDFCallback callback) {
         Log.d(TAG, "=== UNIFIED PDF GENERATION STARTED ===");
 
-        try {
-            String filePath = createResumePDF(context, resume);
+        // Runs in the background, the callback comes back on the main thread
+        Context appContext = context.getApplicationContext();
+        pdfExecutor.execute(() -> {
+            try {
+                String filePath = createResumePDF(appContext, resume);
 
-            if (filePath != null) {
-                callback.onSuccess(filePath);
-            } else {
-                callback.onError("Failed to create PDF file");
+                if (filePath != null) {
+                    mainHandler.post(() -> callback.onSuccess(filePath));
+                } else {
+                    mainHandler.post(() -> callback.onError("Failed to create PDF file"));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error in generateResumePDF", e);
+                mainHandler.post(() -> callback.onError("PDF generation failed: " + e.getMessage()));
             }
-        } catch (Exception e) {
-            Log.e(TAG, "Error in generateResumePDF", e);
-            callback.onError("PDF generation failed: " + e.getMessage());
-        }
+        });
     }
 
     /**
@@ -104,7 +121,10 @@ public class PDFGenerator {
             PdfFont italicFont = PdfFontFactory.createFont(StandardFonts.HELVETICA_OBLIQUE);
 
             // Add header section first
-            addHeaderSection(document, resume, boldFont, regularFont);
+            ImageData photo = isNotEmpty(resume.getPhotoPath())
+                    ? PdfImageCache.get(context, resume.getPhotoPath(), PHOTO_SIZE_POINTS)
+                    : null;
+            addHeaderSection(document, resume, photo, boldFont, regularFont);
 
             // Add resume content
             renderResumeContent(document, resume, boldFont, regularFont, italicFont);
@@ -208,9 +228,7 @@ public class PDFGenerator {
                 item.setKeepTogether(true);
 
                 // Create the paragraph for the list item content
-                Paragraph itemPara = new Paragraph(itemText)
-                        .setFont(regularFont)
-                        .setFontSize(9)
+                Paragraph itemPara = linkedParagraph(itemText, regularFont, 9)
                         .setMarginTop(0);
 
                 // 💡 SET THE BOTTOM MARGIN HERE TO CREATE A GAP AFTER THE BULLET POINT
@@ -255,9 +273,7 @@ public class PDFGenerator {
                 bulletList = null;
             }
 
-            Paragraph para = new Paragraph(line)
-                    .setFont(regularFont)
-                    .setFontSize(9)
+            Paragraph para = linkedParagraph(line, regularFont, 9)
                     .setMarginTop(1)
                     .setMarginBottom(1)
                     .setKeepTogether(true);
@@ -310,10 +326,19 @@ public class PDFGenerator {
     }
 
     /**
-     * Add header section with contact information
+     * Add header section with contact information, and the photo above it if there is one
      */
-    private static void addHeaderSection(Document document, Resume resume,
+    private static void addHeaderSection(Document document, Resume resume, ImageData photo,
                                          PdfFont boldFont, PdfFont regularFont) {
+        if (photo != null) {
+            Image photoImage = new Image(photo)
+                    .setWidth(PHOTO_SIZE_POINTS)
+                    .setHeight(PHOTO_SIZE_POINTS)
+                    .setHorizontalAlignment(HorizontalAlignment.CENTER)
+                    .setMarginBottom(4);
+            document.add(photoImage);
+        }
+
         // Name - Large and centered
         Paragraph namePara = new Paragraph(resume.getName())
                 .setFont(boldFont)
@@ -354,8 +379,7 @@ public class PDFGenerator {
         if (isNotEmpty(resume.getGithub())) {
             if (!firstItem) contactPara.add(new Text("  |  ").setFont(regularFont).setFontSize(9));
 
-            String githubUrl = resume.getGithub().startsWith("http") ? resume.getGithub() :
-                    "https://github.com/" + resume.getGithub();
+            String githubUrl = LinkScanner.githubUrl(resume.getGithub());
 
             Link githubLink = (Link) new Link("GitHub", PdfAction.createURI(githubUrl))
                     .setFont(regularFont)
@@ -370,8 +394,7 @@ public class PDFGenerator {
         if (isNotEmpty(resume.getLinkedin())) {
             if (!firstItem) contactPara.add(new Text("  |  ").setFont(regularFont).setFontSize(9));
 
-            String linkedinUrl = resume.getLinkedin().startsWith("http") ? resume.getLinkedin() :
-                    "https://linkedin.com/in/" + resume.getLinkedin();
+            String linkedinUrl = LinkScanner.linkedinUrl(resume.getLinkedin());
 
             Link linkedinLink = (Link) new Link("LinkedIn", PdfAction.createURI(linkedinUrl))
                     .setFont(regularFont)
@@ -386,8 +409,7 @@ public class PDFGenerator {
         if (isNotEmpty(resume.getPortfolio())) {
             if (!firstItem) contactPara.add(new Text("  |  ").setFont(regularFont).setFontSize(9));
 
-            String portfolioUrl = resume.getPortfolio().startsWith("http") ? resume.getPortfolio() :
-                    "https://" + resume.getPortfolio();
+            String portfolioUrl = LinkScanner.webUrl(resume.getPortfolio());
 
             Link portfolioLink = (Link) new Link("Portfolio", PdfAction.createURI(portfolioUrl))
                     .setFont(regularFont)
@@ -406,6 +428,30 @@ public class PDFGenerator {
         document.add(separator);
     }
 
+    /**
+     * Paragraph with the same links the app shows for this text
+     */
+    private static Paragraph linkedParagraph(String text, PdfFont font, float fontSize) {
+        Paragraph paragraph = new Paragraph()
+                .setFont(font)
+                .setFontSize(fontSize);
+
+        int position = 0;
+        for (LinkScanner.Link link : LinkScanner.scan(text)) {
+            if (link.start > position) {
+                paragraph.add(new Text(text.substring(position, link.start)));
+            }
+            paragraph.add((Link) new Link(text.substring(link.start, link.end), PdfAction.createURI(link.url))
+                    .setFontColor(new DeviceRgb(0, 102, 204))
+                    .setUnderline());
+            position = link.end;
+        }
+        if (position < text.length()) {
+            paragraph.add(new Text(text.substring(position)));
+        }
+        return paragraph;
+    }
+
     /**
      * Add section header with underline
      */
@@ -426,7 +472,7 @@ public class PDFGenerator {
     /**
      * Check if a line is a section header
      */
-    private static boolean isSectionHeader(String line) {
+    public static boolean isSectionHeader(String line) {
         String upperLine = line.toUpperCase();
 
         // Check if entire line is uppercase and not too short
@@ -0,0 +1,146 @@
+package com.passfamily.airesumebuilder.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.bumptech.glide.Glide;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Photos ready to embed in a PDF: cropped square, scaled to the exact size they are
+ * printed at 150 dpi and compressed as JPEG once, then kept in memory and on disk so
+ * later exports reuse the same bytes. Keyed by the stored file name, which is the
+ * SHA-256 of its content, and the size. Blocking; call from a background thread.
+ */
+class PdfImageCache {
+    private static final String TAG = "PdfImageCache";
+    private static final String DIRECTORY = "pdf_images";
+
+    private static final int DPI = 150;
+    private static final int JPEG_QUALITY = 85;
+
+    private static final LruCache<String, ImageData> memory = new LruCache<>(8);
+
+    private PdfImageCache() {
+    }
+
+    /**
+     * Image data for the stored photo at the given size in points, or null if it
+     * couldn't be loaded
+     */
+    static ImageData get(Context context, String storagePath, float sizePoints) {
+        int sizePixels = Math.round(sizePoints / 72f * DPI);
+        String key = contentName(storagePath) + "_" + sizePixels;
+
+        ImageData cached = memory.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        File file = new File(new File(context.getCacheDir(), DIRECTORY), key + ".jpg");
+        try {
+            byte[] bytes;
+            if (file.exists()) {
+                bytes = readFile(file);
+            } else {
+                bytes = render(context, storagePath, sizePixels);
+                File directory = file.getParentFile();
+                if (directory != null && !directory.exists()) {
+                    directory.mkdirs();
+                }
+                // Written aside and renamed, so a crash mid-write never leaves a truncated file
+                File temp = new File(file.getPath() + ".tmp");
+                try (FileOutputStream out = new FileOutputStream(temp)) {
+                    out.write(bytes);
+                }
+                if (!temp.renameTo(file)) {
+                    temp.delete();
+                    Log.w(TAG, "Could not cache photo on disk: " + file.getName());
+                }
+            }
+            ImageData imageData = ImageDataFactory.create(bytes);
+            memory.put(key, imageData);
+            return imageData;
+        } catch (Exception | OutOfMemoryError e) {
+            Log.e(TAG, "Could not prepare photo: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] render(Context context, String storagePath, int sizePixels) throws Exception {
+        // The original comes from Glide's disk cache when it has been shown before
+        StorageImageLoader.register(context);
+        File source = Glide.with(context.getApplicationContext())
+                .asFile()
+                .load(new StorageImageLoader.StorageImage(storagePath))
+                .submit()
+                .get();
+
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(source.getPath(), bounds);
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Not an image");
+        }
+
+        // Subsample as far as possible while the short side still covers the target
+        int sampleSize = 1;
+        while (Math.min(bounds.outWidth, bounds.outHeight) / (sampleSize * 2) >= sizePixels) {
+            sampleSize *= 2;
+        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        Bitmap decoded = BitmapFactory.decodeFile(source.getPath(), options);
+        if (decoded == null) {
+            throw new IOException("Could not decode image");
+        }
+
+        // Centre square, scaled to the exact size in one pass
+        int side = Math.min(decoded.getWidth(), decoded.getHeight());
+        Matrix matrix = new Matrix();
+        float scale = (float) sizePixels / side;
+        matrix.postScale(scale, scale);
+        Bitmap square = Bitmap.createBitmap(decoded,
+                (decoded.getWidth() - side) / 2, (decoded.getHeight() - side) / 2, side, side, matrix, true);
+        if (square != decoded) {
+            decoded.recycle();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        square.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+        square.recycle();
+        return out.toByteArray();
+    }
+
+    private static byte[] readFile(File file) throws IOException {
+        byte[] bytes = new byte[(int) file.length()];
+        try (FileInputStream in = new FileInputStream(file)) {
+            int offset = 0;
+            while (offset < bytes.length) {
+                int read = in.read(bytes, offset, bytes.length - offset);
+                if (read < 0) {
+                    throw new IOException("File truncated");
+                }
+                offset += read;
+            }
+        }
+        return bytes;
+    }
+
+    private static String contentName(String storagePath) {
+        String name = storagePath.substring(storagePath.lastIndexOf('/') + 1);
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+}
@@ -0,0 +1,156 @@
+package com.passfamily.airesumebuilder.utils;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.passfamily.airesumebuilder.database.FirestoreManager;
+import com.passfamily.airesumebuilder.database.ResumeListSnapshot;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decides when the splash screen can go. It waits for the signed-in state to be
+ * restored and, for a signed-in user, for the saved resume list to be read and the
+ * Firestore cache to be opened, so the first screen has its data at once. If that
+ * takes longer than {@link #MAX_WAIT_MS} the app starts anyway.
+ */
+public class StartupOrchestrator {
+    private static final String TAG = "StartupOrchestrator";
+
+    private static final long MAX_WAIT_MS = 800;
+
+    private static final String SIGNAL_AUTH = "auth";
+    private static final String SIGNAL_SNAPSHOT = "snapshot";
+    private static final String SIGNAL_FIRESTORE = "firestore";
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // Read during startup and handed to the resume list, so it isn't read twice
+    private static ResumeListSnapshot.Data prefetchedSnapshot;
+    private static String prefetchedUserId;
+
+    public interface Listener {
+        // The user is null if nobody is signed in
+        void onReady(FirebaseUser user);
+    }
+
+    private final Context context;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Set<String> pending = new HashSet<>();
+    private final long startedAt = SystemClock.elapsedRealtime();
+    private final StringBuilder timings = new StringBuilder();
+    private Listener listener;
+    private FirebaseUser user;
+    private boolean ready;
+
+    public StartupOrchestrator(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Start waiting for the signals. The listener is called once, on the main thread.
+     */
+    public void start(Listener listener) {
+        this.listener = listener;
+        pending.add(SIGNAL_AUTH);
+        mainHandler.postDelayed(() -> finish("timed out waiting for " + pending), MAX_WAIT_MS);
+
+        FirebaseAuth auth = FirebaseAuth.getInstance();
+        // Called once the stored sign-in has been loaded
+        auth.addAuthStateListener(new FirebaseAuth.AuthStateListener() {
+            @Override
+            public void onAuthStateChanged(FirebaseAuth firebaseAuth) {
+                firebaseAuth.removeAuthStateListener(this);
+                onAuthKnown(firebaseAuth.getCurrentUser());
+            }
+        });
+    }
+
+    /**
+     * The resume list saved at the end of the last session, read during startup if
+     * possible, otherwise now
+     */
+    public static synchronized ResumeListSnapshot.Data takeSnapshot(Context context, String userId) {
+        ResumeListSnapshot.Data snapshot = userId.equals(prefetchedUserId)
+                ? prefetchedSnapshot
+                : ResumeListSnapshot.read(context, userId);
+        prefetchedSnapshot = null;
+        prefetchedUserId = null;
+        return snapshot;
+    }
+
+    private void onAuthKnown(FirebaseUser currentUser) {
+        if (ready) {
+            return;
+        }
+        user = currentUser;
+        if (user != null) {
+            String userId = user.getUid();
+            pending.add(SIGNAL_SNAPSHOT);
+            pending.add(SIGNAL_FIRESTORE);
+
+            executor.execute(() -> {
+                ResumeListSnapshot.Data snapshot = ResumeListSnapshot.read(context, userId);
+                synchronized (StartupOrchestrator.class) {
+                    prefetchedSnapshot = snapshot;
+                    prefetchedUserId = userId;
+                }
+                mainHandler.post(() -> signal(SIGNAL_SNAPSHOT));
+            });
+
+            new FirestoreManager(context).warmUpCache(userId, new FirestoreManager.FirestoreCallback<Void>() {
+                @Override
+                public void onSuccess(Void result) {
+                    signal(SIGNAL_FIRESTORE);
+                }
+
+                @Override
+                public void onError(String error) {
+                    signal(SIGNAL_FIRESTORE);
+                }
+            });
+        }
+        signal(SIGNAL_AUTH);
+    }
+
+    private void signal(String name) {
+        if (ready || !pending.remove(name)) {
+            return;
+        }
+        timings.append(' ').append(name).append('=').append(SystemClock.elapsedRealtime() - startedAt).append("ms");
+        if (pending.isEmpty()) {
+            finish("all signals");
+        }
+    }
+
+    private void finish(String reason) {
+        if (ready) {
+            return;
+        }
+        ready = true;
+        mainHandler.removeCallbacksAndMessages(null);
+
+        long waited = SystemClock.elapsedRealtime() - startedAt;
+        String sinceProcessStart = Build.VERSION.SDK_INT >= Build.VERSION_CODES.N
+                ? ", " + (SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime()) + "ms since process start"
+                : "";
+        Log.d(TAG, "Ready after " + waited + "ms (" + reason + ")" + sinceProcessStart + ";" + timings);
+
+        // Auth may not have answered if startup timed out
+        listener.onReady(user != null ? user : FirebaseAuth.getInstance().getCurrentUser());
+    }
+}
@@ -1,17 +1,60 @@
 package com.passfamily.airesumebuilder.utils;
 
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageException;
+import com.google.firebase.storage.StorageMetadata;
 import com.google.firebase.storage.StorageReference;
 import com.google.firebase.storage.UploadTask;
+import com.passfamily.airesumebuilder.database.StorageRefTracker;
 
-import java.util.UUID;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class StorageHelper {
     private static final String TAG = "StorageHelper";
+
+    // Save progress to disk at most this often, by bytes sent
+    private static final long PROGRESS_SAVE_INTERVAL_BYTES = 256 * 1024;
+
+    // Storage paths with an upload task running in this process
+    private static final Set<String> activeUploads = new HashSet<>();
+    private static boolean reconnectWatcherRegistered;
+
+    // Uploads resumed from an earlier run and who is watching them; main thread only
+    private static final List<ResumedUploadListener> resumedListeners = new ArrayList<>();
+    private static final Map<String, Double> resumedProgress = new HashMap<>();
+
+    private static final ExecutorService hashExecutor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final Context context;
+    private final UploadSessionStore sessionStore;
+    private final DownloadUrlCache urlCache;
+    private final StorageRefTracker refTracker;
     private FirebaseStorage storage;
     private String userId;
 
@@ -21,7 +64,21 @@ public class StorageHelper {
         void onProgress(double progress);
     }
 
-    public StorageHelper() {
+    /**
+     * Hears about uploads continued from an earlier run, which no screen started.
+     * Called on the main thread.
+     */
+    public interface ResumedUploadListener {
+        void onResumedProgress(String storagePath, double progress);
+        void onResumedFinished(String storagePath, String downloadUrl);
+        void onResumedFailed(String storagePath, String error);
+    }
+
+    public StorageHelper(Context context) {
+        this.context = context.getApplicationContext();
+        sessionStore = new UploadSessionStore(context);
+        urlCache = DownloadUrlCache.get(context);
+        refTracker = new StorageRefTracker();
         storage = FirebaseStorage.getInstance();
         if (FirebaseAuth.getInstance().getCurrentUser() != null) {
             userId = FirebaseAuth.getInstance().getCurrentUser().getUid();
@@ -29,7 +86,7 @@ public class StorageHelper {
     }
 
     /**
-     * Upload profile photo
+     * Upload profile photo, shrunk to header size first
      */
     public void uploadProfilePhoto(Uri fileUri, UploadCallback callback) {
         if (userId == null) {
@@ -37,17 +94,28 @@ public class StorageHelper {
             return;
         }
 
-        String fileName = "photo_" + System.currentTimeMillis() + ".jpg";
-        StorageReference photoRef = storage.getReference()
-                .child("photos")
-                .child(userId)
-                .child(fileName);
+        ImagePreprocessor.process(context, fileUri,
+                ImagePreprocessor.PROFILE_PHOTO_MAX_DIMENSION, ImagePreprocessor.PROFILE_PHOTO_MAX_BYTES,
+                new ImagePreprocessor.Callback() {
+                    @Override
+                    public void onSuccess(File output) {
+                        StorageMetadata metadata = new StorageMetadata.Builder()
+                                .setContentType("image/jpeg")
+                                .build();
+                        // The temporary file is deleted once the upload session ends
+                        uploadByContent("photos", Uri.fromFile(output), "jpg", metadata, callback);
+                    }
 
-        uploadFile(photoRef, fileUri, callback);
+                    @Override
+                    public void onError(String error) {
+                        callback.onError(error);
+                    }
+                });
     }
 
     /**
-     * Upload certificate (PDF or image)
+     * Upload certificate (PDF or image). Calling this again for a file that failed
+     * continues the earlier upload session.
      */
     public void uploadCertificate(Uri fileUri, String extension, UploadCallback callback) {
         if (userId == null) {
@@ -55,36 +123,390 @@ public class StorageHelper {
             return;
         }
 
-        String fileName = "cert_" + UUID.randomUUID().toString() + "." + extension;
-        StorageReference certRef = storage.getReference()
-                .child("certificates")
-                .child(userId)
-                .child(fileName);
+        uploadByContent("certificates", fileUri, extension, null, callback);
+    }
+
+    /**
+     * Store the file under the SHA-256 of its bytes, so the same file attached again is
+     * not sent twice: if the object is already there its download URL is returned.
+     */
+    private void uploadByContent(String folder, Uri fileUri, String extension, StorageMetadata metadata,
+                                 UploadCallback callback) {
+        hashExecutor.execute(() -> {
+            String hash;
+            try {
+                hash = sha256(fileUri);
+            } catch (IOException e) {
+                Log.e(TAG, "Could not read file: " + e.getMessage());
+                mainHandler.post(() -> callback.onError("Could not read file"));
+                return;
+            }
+
+            mainHandler.post(() -> {
+                StorageReference reference = storage.getReference()
+                        .child(folder)
+                        .child(userId)
+                        .child(hash + "." + extension);
 
-        uploadFile(certRef, fileUri, callback);
+                String cachedUrl = urlCache.getUrl(reference.getPath());
+                if (cachedUrl == null) {
+                    uploadIfMissing(reference, fileUri, metadata, callback);
+                    return;
+                }
+
+                // The cached URL may outlive the object: another device's sweep can delete it
+                // once no resume has referenced it for a while. Make sure it is still there.
+                reference.getMetadata().addOnSuccessListener(existing -> {
+                    Log.d(TAG, "Already uploaded, skipping: " + reference.getPath());
+                    deleteIfTemporary(fileUri);
+                    callback.onSuccess(cachedUrl);
+                }).addOnFailureListener(e -> {
+                    urlCache.remove(reference.getPath());
+                    if (isNotFound(e)) {
+                        uploadFile(reference, fileUri, metadata, callback);
+                    } else {
+                        uploadIfMissing(reference, fileUri, metadata, callback);
+                    }
+                });
+            });
+        });
+    }
+
+    private void uploadIfMissing(StorageReference reference, Uri fileUri, StorageMetadata metadata,
+                                 UploadCallback callback) {
+        reference.getDownloadUrl().addOnSuccessListener(uri -> {
+            Log.d(TAG, "Already uploaded, skipping: " + reference.getPath());
+            urlCache.put(reference.getPath(), uri.toString());
+            deleteIfTemporary(fileUri);
+            callback.onSuccess(uri.toString());
+        }).addOnFailureListener(e -> {
+            if (!isNotFound(e)) {
+                // Couldn't tell, so upload anyway; the result is the same object
+                Log.w(TAG, "Could not check for existing upload: " + e.getMessage());
+            }
+            uploadFile(reference, fileUri, metadata, callback);
+        });
+    }
+
+    private static boolean isNotFound(Exception e) {
+        return e instanceof StorageException
+                && ((StorageException) e).getErrorCode() == StorageException.ERROR_OBJECT_NOT_FOUND;
     }
 
     /**
-     * Generic file upload
+     * Generic file upload. The session is saved so the upload can continue where it left
+     * off if the app is killed or the network is lost. An earlier session for the same
+     * path is picked up again, since the path stands for the same bytes.
      */
-    private void uploadFile(StorageReference reference, Uri fileUri, UploadCallback callback) {
-        UploadTask uploadTask = reference.putFile(fileUri);
+    private void uploadFile(StorageReference reference, Uri fileUri, StorageMetadata metadata, UploadCallback callback) {
+        UploadSessionStore.Session session = sessionStore.get(reference.getPath());
+        if (session == null) {
+            session = new UploadSessionStore.Session();
+            session.storagePath = reference.getPath();
+            session.contentType = metadata != null ? metadata.getContentType() : null;
+            session.startedAt = System.currentTimeMillis();
+        } else if (!fileUri.toString().equals(session.fileUri)) {
+            // Same bytes in another file; keep the one a running upload may be reading
+            boolean running;
+            synchronized (activeUploads) {
+                running = activeUploads.contains(session.storagePath);
+            }
+            if (running) {
+                deleteIfTemporary(fileUri);
+                fileUri = Uri.parse(session.fileUri);
+            } else {
+                deleteIfTemporary(Uri.parse(session.fileUri));
+            }
+        }
+        session.fileUri = fileUri.toString();
+        sessionStore.save(session);
+
+        callback.onProgress(session.getProgress());
+        startUpload(reference, session, metadata, callback);
+    }
+
+    /**
+     * Continue uploads left unfinished by an earlier run, from the byte offset the server
+     * confirmed. Progress starts from the saved value.
+     */
+    public void resumePendingUploads() {
+        if (userId == null) {
+            return;
+        }
+
+        for (UploadSessionStore.Session session : sessionStore.getAll()) {
+            // Other accounts' uploads wait until that user signs in again
+            if (!session.storagePath.contains("/" + userId + "/")) {
+                continue;
+            }
+            if (!isReadable(Uri.parse(session.fileUri))) {
+                // The file is gone or its permission grant didn't survive the restart
+                Log.w(TAG, "Dropping upload, file no longer readable: " + session.storagePath);
+                finishSession(session);
+                continue;
+            }
+            synchronized (activeUploads) {
+                if (activeUploads.contains(session.storagePath)) {
+                    // Already resumed by an earlier reconnect, and its listeners are attached
+                    continue;
+                }
+            }
+
+            UploadCallback callback = resumedCallback(session.storagePath);
+            callback.onProgress(session.getProgress());
+            startUpload(storage.getReference(session.storagePath), session, metadataFor(session), callback);
+        }
+    }
+
+    /**
+     * Follow resumed uploads. Ones already running are reported straight away.
+     */
+    public static void addResumedUploadListener(ResumedUploadListener listener) {
+        resumedListeners.add(listener);
+        for (Map.Entry<String, Double> entry : resumedProgress.entrySet()) {
+            listener.onResumedProgress(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public static void removeResumedUploadListener(ResumedUploadListener listener) {
+        resumedListeners.remove(listener);
+    }
+
+    // Reports one resumed upload to the listeners, moving to the main thread first
+    private static UploadCallback resumedCallback(String storagePath) {
+        return new UploadCallback() {
+            @Override
+            public void onSuccess(String downloadUrl) {
+                Log.d(TAG, "Resumed upload finished: " + downloadUrl);
+                mainHandler.post(() -> {
+                    resumedProgress.remove(storagePath);
+                    for (ResumedUploadListener listener : new ArrayList<>(resumedListeners)) {
+                        listener.onResumedFinished(storagePath, downloadUrl);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.e(TAG, "Resumed upload failed: " + error);
+                mainHandler.post(() -> {
+                    resumedProgress.remove(storagePath);
+                    for (ResumedUploadListener listener : new ArrayList<>(resumedListeners)) {
+                        listener.onResumedFailed(storagePath, error);
+                    }
+                });
+            }
+
+            @Override
+            public void onProgress(double progress) {
+                mainHandler.post(() -> {
+                    resumedProgress.put(storagePath, progress);
+                    for (ResumedUploadListener listener : new ArrayList<>(resumedListeners)) {
+                        listener.onResumedProgress(storagePath, progress);
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Resume pending uploads whenever a network becomes available
+     */
+    public static synchronized void resumeOnReconnect(Context context) {
+        if (reconnectWatcherRegistered) {
+            return;
+        }
+        reconnectWatcherRegistered = true;
+
+        Context appContext = context.getApplicationContext();
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) appContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+        NetworkRequest request = new NetworkRequest.Builder()
+                .addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                .build();
+        connectivityManager.registerNetworkCallback(request, new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(Network network) {
+                new StorageHelper(appContext).resumePendingUploads();
+            }
+        });
+    }
 
+    private void startUpload(StorageReference reference, UploadSessionStore.Session session,
+                             StorageMetadata metadata, UploadCallback callback) {
+        synchronized (activeUploads) {
+            if (!activeUploads.add(session.storagePath)) {
+                // Already running, for example resumed after a reconnect; follow that one
+                List<UploadTask> tasks = reference.getActiveUploadTasks();
+                if (!tasks.isEmpty()) {
+                    listen(tasks.get(0), reference, callback);
+                } else {
+                    // Marked active but its task isn't visible yet; the caller retries and
+                    // by then the upload has either finished or is listed
+                    callback.onError("Upload already in progress");
+                }
+                return;
+            }
+        }
+
+        Uri fileUri = Uri.parse(session.fileUri);
+        UploadTask uploadTask;
+        if (session.sessionUri != null) {
+            Log.d(TAG, "Resuming upload at " + session.bytesTransferred + " bytes: " + session.storagePath);
+            uploadTask = reference.putFile(fileUri, metadata, Uri.parse(session.sessionUri));
+        } else if (metadata != null) {
+            uploadTask = reference.putFile(fileUri, metadata);
+        } else {
+            uploadTask = reference.putFile(fileUri);
+        }
+
+        // Bookkeeping listeners go first so the session is settled before the caller hears back
+        uploadTask.addOnProgressListener(taskSnapshot -> saveProgress(session, taskSnapshot))
+                .addOnSuccessListener(taskSnapshot -> {
+                    endUpload(session);
+                    finishSession(session);
+                    refTracker.trackUpload(userId, session.storagePath);
+                }).addOnFailureListener(e -> {
+                    endUpload(session);
+                    if (isResumable(e)) {
+                        Log.e(TAG, "Upload interrupted, will resume: " + e.getMessage());
+                    } else {
+                        Log.e(TAG, "Upload failed: " + e.getMessage());
+                        finishSession(session);
+                    }
+                });
+        listen(uploadTask, reference, callback);
+    }
+
+    private void listen(UploadTask uploadTask, StorageReference reference, UploadCallback callback) {
         uploadTask.addOnProgressListener(taskSnapshot -> {
             double progress = (100.0 * taskSnapshot.getBytesTransferred()) / taskSnapshot.getTotalByteCount();
             callback.onProgress(progress);
         }).addOnSuccessListener(taskSnapshot -> {
             reference.getDownloadUrl().addOnSuccessListener(uri -> {
                 Log.d(TAG, "File uploaded successfully: " + uri.toString());
+                urlCache.put(reference.getPath(), uri.toString());
                 callback.onSuccess(uri.toString());
             }).addOnFailureListener(e -> {
                 Log.e(TAG, "Error getting download URL: " + e.getMessage());
                 callback.onError("Error getting download URL");
             });
-        }).addOnFailureListener(e -> {
-            Log.e(TAG, "Upload failed: " + e.getMessage());
-            callback.onError("Upload failed: " + e.getMessage());
-        });
+        }).addOnFailureListener(e -> callback.onError("Upload failed: " + e.getMessage()));
+    }
+
+    private static StorageMetadata metadataFor(UploadSessionStore.Session session) {
+        return session.contentType != null
+                ? new StorageMetadata.Builder().setContentType(session.contentType).build()
+                : null;
+    }
+
+    private void saveProgress(UploadSessionStore.Session session, UploadTask.TaskSnapshot taskSnapshot) {
+        Uri sessionUri = taskSnapshot.getUploadSessionUri();
+        boolean newSession = sessionUri != null && !sessionUri.toString().equals(session.sessionUri);
+        boolean advanced = taskSnapshot.getBytesTransferred() - session.bytesTransferred >= PROGRESS_SAVE_INTERVAL_BYTES;
+        if (!newSession && !advanced) {
+            return;
+        }
+
+        if (sessionUri != null) {
+            session.sessionUri = sessionUri.toString();
+        }
+        session.bytesTransferred = taskSnapshot.getBytesTransferred();
+        session.totalBytes = taskSnapshot.getTotalByteCount();
+        sessionStore.save(session);
+    }
+
+    private void endUpload(UploadSessionStore.Session session) {
+        synchronized (activeUploads) {
+            activeUploads.remove(session.storagePath);
+        }
+    }
+
+    /**
+     * Forget the session and delete the source if it was a temporary file of ours
+     */
+    private void finishSession(UploadSessionStore.Session session) {
+        sessionStore.remove(session.storagePath);
+        deleteIfTemporary(Uri.parse(session.fileUri));
+    }
+
+    private void deleteIfTemporary(Uri fileUri) {
+        if ("file".equals(fileUri.getScheme()) && fileUri.getPath() != null
+                && fileUri.getPath().startsWith(context.getCacheDir().getPath())) {
+            new File(fileUri.getPath()).delete();
+        }
+    }
+
+    /**
+     * Hex SHA-256 of the file, read in chunks so large files aren't held in memory
+     */
+    private String sha256(Uri fileUri) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+
+        try (InputStream in = context.getContentResolver().openInputStream(fileUri)) {
+            if (in == null) {
+                throw new IOException("Could not open " + fileUri);
+            }
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private boolean isReadable(Uri fileUri) {
+        try (InputStream in = context.getContentResolver().openInputStream(fileUri)) {
+            return in != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Network and server hiccups can be resumed; permission or quota errors can't
+     */
+    private static boolean isResumable(Exception e) {
+        if (!(e instanceof StorageException)) {
+            return false;
+        }
+        StorageException storageException = (StorageException) e;
+        return storageException.getIsRecoverableException()
+                || storageException.getErrorCode() == StorageException.ERROR_RETRY_LIMIT_EXCEEDED;
+    }
+
+    /**
+     * Storage path of an uploaded file, from the download URL the callbacks report
+     */
+    public static String pathOf(String downloadUrl) {
+        return FirebaseStorage.getInstance().getReferenceFromUrl(downloadUrl).getPath();
+    }
+
+    /**
+     * Delete a stored file by path and wait for the result; for background threads only.
+     * A file that is already gone counts as deleted.
+     */
+    public void deleteByPath(String storagePath) throws ExecutionException, InterruptedException {
+        try {
+            Tasks.await(storage.getReference(storagePath).delete());
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof StorageException)
+                    || ((StorageException) e.getCause()).getErrorCode() != StorageException.ERROR_OBJECT_NOT_FOUND) {
+                throw e;
+            }
+        }
+        urlCache.remove(storagePath);
     }
 
     /**
@@ -96,6 +518,7 @@ public class StorageHelper {
             fileRef.delete()
                     .addOnSuccessListener(aVoid -> {
                         Log.d(TAG, "File deleted successfully");
+                        urlCache.remove(fileRef.getPath());
                         callback.onSuccess("File deleted");
                     })
                     .addOnFailureListener(e -> {
@@ -0,0 +1,190 @@
+package com.passfamily.airesumebuilder.utils;
+
+import android.content.Context;
+import android.util.Log;
+import android.widget.ImageView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.HttpException;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.data.HttpUrlFetcher;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.signature.ObjectKey;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.storage.FirebaseStorage;
+
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets Glide load uploaded images by storage path. The download URL comes from
+ * {@link DownloadUrlCache} when it can, and the image is disk cached by path at the
+ * size it is shown, so showing it again makes no network calls at all.
+ */
+public class StorageImageLoader implements ModelLoader<StorageImageLoader.StorageImage, InputStream> {
+    private static final String TAG = "StorageImageLoader";
+
+    private static final int TIMEOUT_MS = 15000;
+
+    private static boolean registered;
+
+    /**
+     * Image stored at a path in Firebase Storage
+     */
+    public static final class StorageImage {
+        final String storagePath;
+
+        public StorageImage(String storagePath) {
+            this.storagePath = storagePath;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StorageImage && storagePath.equals(((StorageImage) o).storagePath);
+        }
+
+        @Override
+        public int hashCode() {
+            return storagePath.hashCode();
+        }
+    }
+
+    /**
+     * Show the image at the storage path, fetched and cached at the view's size
+     */
+    public static void load(ImageView imageView, String storagePath) {
+        register(imageView.getContext());
+        Glide.with(imageView)
+                .load(new StorageImage(storagePath))
+                // Keep the downsampled image rather than the full-size original
+                .diskCacheStrategy(DiskCacheStrategy.RESOURCE)
+                .into(imageView);
+    }
+
+    /**
+     * Add the loader to Glide. The app has no Glide module, so this is done on first use.
+     */
+    public static synchronized void register(Context context) {
+        if (registered) {
+            return;
+        }
+        registered = true;
+        Context appContext = context.getApplicationContext();
+        Glide.get(appContext).getRegistry().prepend(StorageImage.class, InputStream.class,
+                new ModelLoaderFactory<StorageImage, InputStream>() {
+                    @NonNull
+                    @Override
+                    public ModelLoader<StorageImage, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+                        return new StorageImageLoader(DownloadUrlCache.get(appContext));
+                    }
+
+                    @Override
+                    public void teardown() {
+                    }
+                });
+    }
+
+    private final DownloadUrlCache urlCache;
+
+    private StorageImageLoader(DownloadUrlCache urlCache) {
+        this.urlCache = urlCache;
+    }
+
+    @Nullable
+    @Override
+    public LoadData<InputStream> buildLoadData(@NonNull StorageImage model, int width, int height, @NonNull Options options) {
+        // Keyed by path, since the URL's token isn't part of what the image is
+        return new LoadData<>(new ObjectKey(model.storagePath), new Fetcher(model.storagePath, urlCache));
+    }
+
+    @Override
+    public boolean handles(@NonNull StorageImage model) {
+        return true;
+    }
+
+    private static class Fetcher implements DataFetcher<InputStream> {
+        private final String storagePath;
+        private final DownloadUrlCache urlCache;
+        private volatile HttpUrlFetcher delegate;
+        private volatile boolean cancelled;
+
+        Fetcher(String storagePath, DownloadUrlCache urlCache) {
+            this.storagePath = storagePath;
+            this.urlCache = urlCache;
+        }
+
+        @Override
+        public void loadData(@NonNull Priority priority, @NonNull DataCallback<? super InputStream> callback) {
+            // Runs on one of Glide's background threads, so waiting for the URL is fine
+            String url = urlCache.getUrl(storagePath);
+            if (url == null) {
+                try {
+                    url = Tasks.await(FirebaseStorage.getInstance().getReference(storagePath).getDownloadUrl(),
+                            TIMEOUT_MS, TimeUnit.MILLISECONDS).toString();
+                } catch (Exception e) {
+                    Log.e(TAG, "Could not get download URL: " + e.getMessage());
+                    callback.onLoadFailed(e);
+                    return;
+                }
+                urlCache.put(storagePath, url);
+            }
+            if (cancelled) {
+                return;
+            }
+
+            delegate = new HttpUrlFetcher(new GlideUrl(url), TIMEOUT_MS);
+            delegate.loadData(priority, new DataCallback<InputStream>() {
+                @Override
+                public void onDataReady(@Nullable InputStream data) {
+                    callback.onDataReady(data);
+                }
+
+                @Override
+                public void onLoadFailed(@NonNull Exception e) {
+                    if (e instanceof HttpException && ((HttpException) e).getStatusCode() == 403) {
+                        // The token was revoked; ask for a new URL next time
+                        urlCache.remove(storagePath);
+                    }
+                    callback.onLoadFailed(e);
+                }
+            });
+        }
+
+        @Override
+        public void cleanup() {
+            if (delegate != null) {
+                delegate.cleanup();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            if (delegate != null) {
+                delegate.cancel();
+            }
+        }
+
+        @NonNull
+        @Override
+        public Class<InputStream> getDataClass() {
+            return InputStream.class;
+        }
+
+        @NonNull
+        @Override
+        public DataSource getDataSource() {
+            return DataSource.REMOTE;
+        }
+    }
+}
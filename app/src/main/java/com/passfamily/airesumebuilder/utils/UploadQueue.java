@@ -0,0 +1,225 @@
+package com.passfamily.airesumebuilder.utils;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.provider.OpenableColumns;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Uploads a batch of certificates a few at a time. The number running at once depends
+ * on the network, smaller files go first so most of them finish early, and a file that
+ * fails is retried on its own, continuing its saved session, while the rest carry on.
+ * Must be used from the main thread; all callbacks run there.
+ */
+public class UploadQueue {
+    private static final String TAG = "UploadQueue";
+
+    private static final int MAX_CONCURRENT_UNMETERED = 3;
+    private static final int MAX_CONCURRENT_CELLULAR = 2;
+    private static final int MAX_CONCURRENT_OTHER = 1;
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MS = 2000;
+
+    public interface Listener {
+        // Combined progress of the whole batch, weighted by file size
+        void onProgress(double progress);
+        void onItemUploaded(Uri fileUri, String downloadUrl);
+        void onItemFailed(Uri fileUri, String error);
+        void onComplete(int uploaded, int failed);
+    }
+
+    private static class Item {
+        final Uri fileUri;
+        final String extension;
+        final long size;
+        int attempts;
+        double progress;
+
+        Item(Uri fileUri, String extension, long size) {
+            this.fileUri = fileUri;
+            this.extension = extension;
+            this.size = size;
+        }
+    }
+
+    private final Context context;
+    private final StorageHelper storageHelper;
+    private final Listener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final PriorityQueue<Item> pending = new PriorityQueue<>(11,
+            (a, b) -> Long.compare(a.size, b.size));
+    private final List<Item> batch = new ArrayList<>();
+    private int running;
+    // Failed items waiting out their retry delay
+    private int retrying;
+    private int uploaded;
+    private int failed;
+    private boolean cancelled;
+
+    public UploadQueue(Context context, StorageHelper storageHelper, Listener listener) {
+        this.context = context.getApplicationContext();
+        this.storageHelper = storageHelper;
+        this.listener = listener;
+    }
+
+    /**
+     * Add a file to the batch and start it if there is a free slot
+     */
+    public void add(Uri fileUri, String extension) {
+        enqueue(fileUri, extension);
+        startNext();
+    }
+
+    /**
+     * Add several files at once, so the smallest of them all is started first
+     */
+    public void addAll(List<Uri> fileUris, List<String> extensions) {
+        for (int i = 0; i < fileUris.size(); i++) {
+            enqueue(fileUris.get(i), extensions.get(i));
+        }
+        startNext();
+    }
+
+    private void enqueue(Uri fileUri, String extension) {
+        Item item = new Item(fileUri, extension, querySize(fileUri));
+        cancelled = false;
+        batch.add(item);
+        pending.add(item);
+    }
+
+    /**
+     * Stop starting new uploads. Ones already running finish, and their saved sessions
+     * stay around for the next reconnect if they don't.
+     */
+    public void cancel() {
+        cancelled = true;
+        pending.clear();
+        retrying = 0;
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    public boolean isIdle() {
+        return running == 0 && retrying == 0 && pending.isEmpty();
+    }
+
+    private void startNext() {
+        while (!cancelled && running < maxConcurrent() && !pending.isEmpty()) {
+            start(pending.poll());
+        }
+    }
+
+    private void start(Item item) {
+        running++;
+        item.attempts++;
+        StorageHelper.UploadCallback callback = new StorageHelper.UploadCallback() {
+            @Override
+            public void onSuccess(String downloadUrl) {
+                item.progress = 100;
+                running--;
+                uploaded++;
+                listener.onItemUploaded(item.fileUri, downloadUrl);
+                finish();
+            }
+
+            @Override
+            public void onError(String error) {
+                onItemError(item, error);
+            }
+
+            @Override
+            public void onProgress(double progress) {
+                item.progress = progress;
+                listener.onProgress(totalProgress());
+            }
+        };
+
+        // Uploads are stored by content, so a retry picks up the earlier session
+        storageHelper.uploadCertificate(item.fileUri, item.extension, callback);
+    }
+
+    private void onItemError(Item item, String error) {
+        running--;
+        if (item.attempts < MAX_ATTEMPTS && !cancelled) {
+            Log.w(TAG, "Upload attempt " + item.attempts + " failed, retrying: " + error);
+            // Back off a little more each time; the slot is free for others meanwhile
+            retrying++;
+            mainHandler.postDelayed(() -> {
+                retrying--;
+                pending.add(item);
+                startNext();
+            }, RETRY_DELAY_MS << (item.attempts - 1));
+            startNext();
+            return;
+        }
+
+        failed++;
+        listener.onItemFailed(item.fileUri, error);
+        finish();
+    }
+
+    private void finish() {
+        listener.onProgress(totalProgress());
+        startNext();
+        if (isIdle()) {
+            int doneUploaded = uploaded;
+            int doneFailed = failed;
+            batch.clear();
+            uploaded = 0;
+            failed = 0;
+            listener.onComplete(doneUploaded, doneFailed);
+        }
+    }
+
+    private double totalProgress() {
+        long totalSize = 0;
+        double done = 0;
+        for (Item item : batch) {
+            // Unknown sizes count as one byte
+            long size = Math.max(item.size, 1);
+            totalSize += size;
+            done += size * item.progress;
+        }
+        return totalSize > 0 ? done / totalSize : 0;
+    }
+
+    private int maxConcurrent() {
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        Network network = connectivityManager.getActiveNetwork();
+        NetworkCapabilities capabilities = network != null ? connectivityManager.getNetworkCapabilities(network) : null;
+        if (capabilities == null) {
+            return MAX_CONCURRENT_OTHER;
+        }
+        if (capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED)) {
+            return MAX_CONCURRENT_UNMETERED;
+        }
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)) {
+            return MAX_CONCURRENT_CELLULAR;
+        }
+        return MAX_CONCURRENT_OTHER;
+    }
+
+    private long querySize(Uri fileUri) {
+        try (Cursor cursor = context.getContentResolver().query(fileUri,
+                new String[]{OpenableColumns.SIZE}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) {
+                return cursor.getLong(0);
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Could not read file size: " + e.getMessage());
+        }
+        return 0;
+    }
+}
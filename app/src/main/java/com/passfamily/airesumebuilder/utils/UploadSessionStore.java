@@ -0,0 +1,81 @@
+package com.passfamily.airesumebuilder.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uploads that haven't finished yet, kept in SharedPreferences so they can be resumed
+ * from the same server session after the app is killed or the network drops.
+ * Entries are keyed by the storage path of the upload.
+ */
+class UploadSessionStore {
+    private static final String TAG = "UploadSessionStore";
+    private static final String PREFS_NAME = "upload_sessions";
+
+    static class Session {
+        String storagePath;
+        String fileUri;
+        String contentType;
+        // Null until the server has assigned a session
+        String sessionUri;
+        long bytesTransferred;
+        long totalBytes;
+        long startedAt;
+
+        double getProgress() {
+            return totalBytes > 0 ? (100.0 * bytesTransferred) / totalBytes : 0;
+        }
+    }
+
+    private final SharedPreferences prefs;
+    private final Gson gson = new Gson();
+
+    UploadSessionStore(Context context) {
+        prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    void save(Session session) {
+        prefs.edit().putString(session.storagePath, gson.toJson(session)).apply();
+    }
+
+    Session get(String storagePath) {
+        return parse(prefs.getString(storagePath, null));
+    }
+
+    void remove(String storagePath) {
+        prefs.edit().remove(storagePath).apply();
+    }
+
+    List<Session> getAll() {
+        List<Session> sessions = new ArrayList<>();
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            Session session = entry.getValue() instanceof String ? parse((String) entry.getValue()) : null;
+            if (session != null) {
+                sessions.add(session);
+            } else {
+                remove(entry.getKey());
+            }
+        }
+        return sessions;
+    }
+
+    private Session parse(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return gson.fromJson(json, Session.class);
+        } catch (JsonSyntaxException e) {
+            Log.e(TAG, "Dropping unreadable upload session: " + e.getMessage());
+            return null;
+        }
+    }
+}
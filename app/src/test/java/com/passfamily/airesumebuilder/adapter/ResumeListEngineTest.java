@@ -0,0 +1,140 @@
+package com.passfamily.airesumebuilder.adapter;
+
+import com.passfamily.airesumebuilder.model.Resume;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class ResumeListEngineTest {
+
+    private Locale defaultLocale;
+    private TimeZone defaultTimeZone;
+
+    @Before
+    public void setUp() {
+        defaultLocale = Locale.getDefault();
+        defaultTimeZone = TimeZone.getDefault();
+        Locale.setDefault(Locale.US);
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+        TimeZone.setDefault(defaultTimeZone);
+    }
+
+    private static long utc(int year, int month, int day) {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.clear();
+        calendar.set(year, month, day, 12, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    private static Resume resume(String id, String name, long createdAt, long updatedAt) {
+        Resume resume = new Resume();
+        resume.setId(id);
+        resume.setResumeName(name);
+        resume.setCreatedAt(createdAt);
+        resume.setUpdatedAt(updatedAt);
+        return resume;
+    }
+
+    private static List<String> keys(List<ResumeListItem> items) {
+        List<String> keys = new ArrayList<>();
+        for (ResumeListItem item : items) {
+            keys.add(item.isHeader() ? "# " + item.headerTitle : item.key);
+        }
+        return keys;
+    }
+
+    private static List<Resume> sample() {
+        return Arrays.asList(
+                resume("a", "backend", utc(2024, Calendar.JANUARY, 5), utc(2024, Calendar.MARCH, 1)),
+                resume("b", "Android", utc(2024, Calendar.FEBRUARY, 1), utc(2024, Calendar.FEBRUARY, 10)),
+                resume("c", "Émile CV", utc(2023, Calendar.DECEMBER, 1), utc(2024, Calendar.MARCH, 20)),
+                resume("d", "design", utc(2024, Calendar.MARCH, 2), utc(2024, Calendar.MARCH, 2)));
+    }
+
+    @Test
+    public void buildNow_sortsByUpdatedNewestFirst() {
+        List<ResumeListItem> items = ResumeListEngine.buildNow(sample(), ResumeListEngine.SortOrder.UPDATED, false);
+
+        assertEquals(Arrays.asList("c", "d", "a", "b"), keys(items));
+    }
+
+    @Test
+    public void buildNow_sortsByCreatedNewestFirst() {
+        List<ResumeListItem> items = ResumeListEngine.buildNow(sample(), ResumeListEngine.SortOrder.CREATED, false);
+
+        assertEquals(Arrays.asList("d", "b", "a", "c"), keys(items));
+    }
+
+    @Test
+    public void buildNow_sortsByNameIgnoringCaseAndAccents() {
+        List<ResumeListItem> items = ResumeListEngine.buildNow(sample(), ResumeListEngine.SortOrder.NAME, false);
+
+        assertEquals(Arrays.asList("b", "a", "d", "c"), keys(items));
+    }
+
+    @Test
+    public void buildNow_breaksTiesByUpdatedThenId() {
+        long time = utc(2024, Calendar.MAY, 1);
+        List<Resume> resumes = Arrays.asList(
+                resume("y", "Same", time, time),
+                resume("x", "same", time, time),
+                resume("z", "SAME", time, time + 1));
+
+        assertEquals(Arrays.asList("z", "x", "y"),
+                keys(ResumeListEngine.buildNow(resumes, ResumeListEngine.SortOrder.NAME, false)));
+        assertEquals(Arrays.asList("z", "x", "y"),
+                keys(ResumeListEngine.buildNow(resumes, ResumeListEngine.SortOrder.UPDATED, false)));
+    }
+
+    @Test
+    public void buildNow_handlesMissingName() {
+        List<Resume> resumes = Arrays.asList(
+                resume("named", "Alpha", 1, 1),
+                resume("unnamed", null, 2, 2));
+
+        assertEquals(Arrays.asList("unnamed", "named"),
+                keys(ResumeListEngine.buildNow(resumes, ResumeListEngine.SortOrder.NAME, false)));
+    }
+
+    @Test
+    public void buildNow_groupsByMonthOfTheSortDate() {
+        List<ResumeListItem> items = ResumeListEngine.buildNow(sample(), ResumeListEngine.SortOrder.UPDATED, true);
+
+        assertEquals(Arrays.asList("# March 2024", "c", "d", "a", "# February 2024", "b"), keys(items));
+    }
+
+    @Test
+    public void buildNow_groupsByCreatedMonthWhenSortedByCreated() {
+        List<ResumeListItem> items = ResumeListEngine.buildNow(sample(), ResumeListEngine.SortOrder.CREATED, true);
+
+        assertEquals(Arrays.asList("# March 2024", "d", "# February 2024", "b",
+                "# January 2024", "a", "# December 2023", "c"), keys(items));
+    }
+
+    @Test
+    public void buildNow_neverGroupsByName() {
+        List<ResumeListItem> items = ResumeListEngine.buildNow(sample(), ResumeListEngine.SortOrder.NAME, true);
+
+        assertEquals(Arrays.asList("b", "a", "d", "c"), keys(items));
+    }
+
+    @Test
+    public void buildNow_emptyList() {
+        assertTrue(ResumeListEngine.buildNow(new ArrayList<>(), ResumeListEngine.SortOrder.UPDATED, true).isEmpty());
+    }
+}
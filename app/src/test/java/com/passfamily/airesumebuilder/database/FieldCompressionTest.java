@@ -0,0 +1,55 @@
+package com.passfamily.airesumebuilder.database;
+
+import com.google.firebase.firestore.Blob;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FieldCompressionTest {
+
+    private static String repeated(String text, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            builder.append(text);
+        }
+        return builder.substring(0, length);
+    }
+
+    @Test
+    public void compress_roundTrips() {
+        String text = repeated("Led a team of five building the payments API — 20% faster releases. ", 5000);
+
+        Blob blob = FieldCompression.compress(text);
+
+        assertNotNull(blob);
+        assertEquals(FieldCompression.CODEC_DEFLATE_UTF8, blob.toBytes()[0]);
+        assertTrue(blob.toBytes().length < text.length());
+        assertEquals(text, FieldCompression.decompress(blob));
+    }
+
+    @Test
+    public void compress_skipsShortAndNullText() {
+        assertNull(FieldCompression.compress(null));
+        assertNull(FieldCompression.compress(repeated("a", FieldCompression.MIN_COMPRESS_LENGTH - 1)));
+    }
+
+    @Test
+    public void decompress_emptyBlobIsEmptyText() {
+        assertEquals("", FieldCompression.decompress(Blob.fromBytes(new byte[0])));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decompress_rejectsUnknownCodec() {
+        FieldCompression.decompress(Blob.fromBytes(new byte[]{99, 1, 2, 3}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decompress_rejectsTruncatedData() {
+        byte[] encoded = FieldCompression.compress(repeated("experience ", 4000)).toBytes();
+        byte[] truncated = new byte[encoded.length / 2];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+
+        FieldCompression.decompress(Blob.fromBytes(truncated));
+    }
+}
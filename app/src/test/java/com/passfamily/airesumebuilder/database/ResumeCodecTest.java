@@ -0,0 +1,140 @@
+package com.passfamily.airesumebuilder.database;
+
+import com.google.firebase.firestore.Blob;
+import com.passfamily.airesumebuilder.model.Resume;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ResumeCodecTest {
+
+    private static String repeated(String text, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            builder.append(text);
+        }
+        return builder.substring(0, length);
+    }
+
+    private static Resume sampleResume() {
+        Resume resume = new Resume();
+        resume.setId("resume-1");
+        resume.setUserId("user-1");
+        resume.setResumeName("Backend");
+        resume.setName("Sam Lee");
+        resume.setEmail("sam@example.com");
+        resume.setPhone("+1 555 0100");
+        resume.setGithub("github.com/sam");
+        resume.setLinkedin("linkedin.com/in/sam");
+        resume.setPortfolio("sam.dev");
+        resume.setPhotoPath("/photos/user-1/abc.jpg");
+        resume.setCertificatePaths("/certificates/user-1/a.pdf\n/certificates/user-1/b.png");
+        resume.setEducation("BSc Computer Science");
+        resume.setSkills("Java, Kotlin, SQL");
+        resume.setExperience(repeated("Built and ran the billing service. ", 3000));
+        resume.setProjects("Resume builder");
+        resume.setAchievements("Hackathon winner");
+        resume.setCourses("Distributed systems");
+        resume.setGeneratedContent(repeated("SAM LEE\nBackend engineer\n", 4000));
+        resume.setCreatedAt(1_700_000_000_000L);
+        resume.setUpdatedAt(1_700_000_500_000L);
+        return resume;
+    }
+
+    private static void assertSameResume(Resume expected, Resume actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getUserId(), actual.getUserId());
+        assertEquals(expected.getResumeName(), actual.getResumeName());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getPhone(), actual.getPhone());
+        assertEquals(expected.getGithub(), actual.getGithub());
+        assertEquals(expected.getLinkedin(), actual.getLinkedin());
+        assertEquals(expected.getPortfolio(), actual.getPortfolio());
+        assertEquals(expected.getPhotoPath(), actual.getPhotoPath());
+        assertEquals(expected.getCertificatePaths(), actual.getCertificatePaths());
+        assertEquals(expected.getEducation(), actual.getEducation());
+        assertEquals(expected.getSkills(), actual.getSkills());
+        assertEquals(expected.getExperience(), actual.getExperience());
+        assertEquals(expected.getProjects(), actual.getProjects());
+        assertEquals(expected.getAchievements(), actual.getAchievements());
+        assertEquals(expected.getCourses(), actual.getCourses());
+        assertEquals(expected.getGeneratedContent(), actual.getGeneratedContent());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+        assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+    }
+
+    @Test
+    public void roundTrip_uncompressed() {
+        Resume resume = sampleResume();
+
+        Map<String, Object> map = ResumeCodec.toMap(resume);
+
+        assertTrue(map.get("experience") instanceof String);
+        assertEquals(ResumeCodec.SCHEMA_VERSION, map.get(ResumeCodec.KEY_SCHEMA_VERSION));
+        assertSameResume(resume, ResumeCodec.fromMap(map));
+    }
+
+    @Test
+    public void roundTrip_compressed() {
+        Resume resume = sampleResume();
+
+        Map<String, Object> map = ResumeCodec.toMap(resume, true);
+
+        assertTrue(map.get("experience") instanceof Blob);
+        assertTrue(map.get("generatedContent") instanceof Blob);
+        // Short fields and fields not marked compressible stay plain text
+        assertEquals("Resume builder", map.get("projects"));
+        assertEquals("Java, Kotlin, SQL", map.get("skills"));
+        assertSameResume(resume, ResumeCodec.fromMap(map));
+    }
+
+    @Test
+    public void roundTrip_keepsNullFields() {
+        Resume resume = new Resume();
+        resume.setId("resume-2");
+        resume.setUpdatedAt(5);
+
+        Resume decoded = ResumeCodec.fromMap(ResumeCodec.toMap(resume, true));
+
+        assertNull(decoded.getExperience());
+        assertNull(decoded.getPhotoPath());
+        assertNull(decoded.getCertificatePaths());
+        assertEquals(5, decoded.getUpdatedAt());
+    }
+
+    @Test
+    public void decode_legacyUncompressedDocument() {
+        // Written before compression and the schema version existed
+        String experience = repeated("Maintained the legacy importer. ", 5000);
+        Map<String, Object> legacy = new HashMap<>();
+        legacy.put("id", "resume-3");
+        legacy.put("userId", "user-1");
+        legacy.put("resumeName", "Old");
+        legacy.put("experience", experience);
+        legacy.put("createdAt", 10L);
+        legacy.put("updatedAt", 20);
+
+        Resume decoded = ResumeCodec.fromMap(legacy);
+
+        assertEquals("resume-3", decoded.getId());
+        assertEquals(experience, decoded.getExperience());
+        assertEquals(10L, decoded.getCreatedAt());
+        assertEquals(20L, decoded.getUpdatedAt());
+        // Upgraded from version 0, which had no portfolio
+        assertEquals("", decoded.getPortfolio());
+    }
+
+    @Test
+    public void decode_mixesPlainAndCompressedFields() {
+        String content = repeated("Generated resume text. ", 4000);
+        Map<String, Object> map = ResumeCodec.toMap(sampleResume());
+        map.put("generatedContent", FieldCompression.compress(content));
+
+        assertEquals(content, ResumeCodec.fromMap(map).getGeneratedContent());
+    }
+}
@@ -0,0 +1,112 @@
+package com.passfamily.airesumebuilder.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LineDiffTest {
+
+    private static void assertRoundTrip(String oldText, String newText) {
+        List<LineDiff.Hunk> hunks = LineDiff.diff(oldText, newText);
+        assertEquals(newText != null ? newText : "", LineDiff.apply(oldText, hunks));
+    }
+
+    @Test
+    public void diff_identicalTextHasNoHunks() {
+        assertTrue(LineDiff.diff("a\nb\nc", "a\nb\nc").isEmpty());
+    }
+
+    @Test
+    public void diff_changedLineIsOneHunk() {
+        List<LineDiff.Hunk> hunks = LineDiff.diff("a\nb\nc", "a\nB\nc");
+
+        assertEquals(1, hunks.size());
+        assertEquals(1, hunks.get(0).at);
+        assertEquals(1, hunks.get(0).deleteCount);
+        assertEquals(Collections.singletonList("B"), hunks.get(0).insertLines);
+    }
+
+    @Test
+    public void diff_insertionDeletesNothing() {
+        List<LineDiff.Hunk> hunks = LineDiff.diff("a\nc", "a\nb\nc");
+
+        assertEquals(1, hunks.size());
+        assertEquals(1, hunks.get(0).at);
+        assertEquals(0, hunks.get(0).deleteCount);
+        assertEquals(Collections.singletonList("b"), hunks.get(0).insertLines);
+    }
+
+    @Test
+    public void diff_deletionInsertsNothing() {
+        List<LineDiff.Hunk> hunks = LineDiff.diff("a\nb\nc", "b\nc");
+
+        assertEquals(1, hunks.size());
+        assertEquals(0, hunks.get(0).at);
+        assertEquals(1, hunks.get(0).deleteCount);
+        assertTrue(hunks.get(0).insertLines.isEmpty());
+    }
+
+    @Test
+    public void diff_sizeFollowsTheEditNotTheDocument() {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            lines.add("line " + i);
+        }
+        String oldText = String.join("\n", lines);
+        lines.set(500, "changed");
+        String newText = String.join("\n", lines);
+
+        List<LineDiff.Hunk> hunks = LineDiff.diff(oldText, newText);
+
+        assertEquals(1, hunks.size());
+        assertEquals(500, hunks.get(0).at);
+        assertEquals(newText, LineDiff.apply(oldText, hunks));
+    }
+
+    @Test
+    public void apply_roundTripsEdgeCases() {
+        assertRoundTrip("", "");
+        assertRoundTrip(null, "new text");
+        assertRoundTrip("old text", null);
+        assertRoundTrip("", "a\nb");
+        assertRoundTrip("a\nb", "");
+        assertRoundTrip("a\nb", "a\nb\n");
+        assertRoundTrip("a\nb\n", "a\nb");
+        assertRoundTrip("\n\n", "\n");
+        assertRoundTrip("a\nb\nc\nd", "d\nc\nb\na");
+        assertRoundTrip("x\na\nx\nb\nx", "a\nx\nb\nx\nc");
+    }
+
+    @Test
+    public void apply_roundTripsRandomEdits() {
+        Random random = new Random(7);
+        List<String> vocabulary = Arrays.asList("Education", "Skills", "Java", "", "- Led a team", "2020 - 2023");
+        for (int round = 0; round < 200; round++) {
+            List<String> oldLines = new ArrayList<>();
+            int count = random.nextInt(30);
+            for (int i = 0; i < count; i++) {
+                oldLines.add(vocabulary.get(random.nextInt(vocabulary.size())));
+            }
+            List<String> newLines = new ArrayList<>(oldLines);
+            int edits = random.nextInt(6);
+            for (int e = 0; e < edits; e++) {
+                int op = random.nextInt(3);
+                if (op == 0 || newLines.isEmpty()) {
+                    newLines.add(random.nextInt(newLines.size() + 1), "new " + round + "." + e);
+                } else if (op == 1) {
+                    newLines.remove(random.nextInt(newLines.size()));
+                } else {
+                    newLines.set(random.nextInt(newLines.size()), "changed " + round + "." + e);
+                }
+            }
+
+            assertRoundTrip(String.join("\n", oldLines), String.join("\n", newLines));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.passfamily.airesumebuilder.utils;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LinkScannerTest {
+
+    private static LinkScanner.Link only(String text) {
+        List<LinkScanner.Link> links = LinkScanner.scan(text);
+        assertEquals(1, links.size());
+        return links.get(0);
+    }
+
+    private static String linkText(String text, LinkScanner.Link link) {
+        return text.substring(link.start, link.end);
+    }
+
+    @Test
+    public void scan_dropsTrailingPunctuation() {
+        String text = "Portfolio: example.com.";
+        LinkScanner.Link link = only(text);
+
+        assertEquals("example.com", linkText(text, link));
+        assertEquals(LinkScanner.TYPE_WEB, link.type);
+        assertEquals("https://example.com", link.url);
+    }
+
+    @Test
+    public void scan_dropsWrappingBrackets() {
+        String text = "See (https://example.com/work), then";
+        LinkScanner.Link link = only(text);
+
+        assertEquals("https://example.com/work", linkText(text, link));
+        assertEquals("https://example.com/work", link.url);
+    }
+
+    @Test
+    public void scan_findsEmail() {
+        String text = "Mail me at jane.doe+cv@mail.example.org!";
+        LinkScanner.Link link = only(text);
+
+        assertEquals(LinkScanner.TYPE_EMAIL, link.type);
+        assertEquals("jane.doe+cv@mail.example.org", linkText(text, link));
+        assertEquals("mailto:jane.doe+cv@mail.example.org", link.url);
+    }
+
+    @Test
+    public void scan_ignoresIncompleteEmail() {
+        assertTrue(LinkScanner.scan("a@b and @handle and name@").isEmpty());
+    }
+
+    @Test
+    public void scan_labelMakesHandleAProfile() {
+        LinkScanner.Link github = only("GitHub: janedoe");
+        assertEquals(LinkScanner.TYPE_GITHUB, github.type);
+        assertEquals("https://github.com/janedoe", github.url);
+
+        String text = "LinkedIn: jane-doe.";
+        LinkScanner.Link linkedin = only(text);
+        assertEquals(LinkScanner.TYPE_LINKEDIN, linkedin.type);
+        assertEquals("jane-doe", linkText(text, linkedin));
+        assertEquals("https://linkedin.com/in/jane-doe", linkedin.url);
+    }
+
+    @Test
+    public void scan_labelOnlyAppliesToTheNextWord() {
+        assertTrue(LinkScanner.scan("GitHub: jane/doe").isEmpty());
+        assertTrue(LinkScanner.scan("GitHub:").isEmpty());
+
+        List<LinkScanner.Link> links = LinkScanner.scan("GitHub: janedoe profile");
+        assertEquals(1, links.size());
+    }
+
+    @Test
+    public void scan_typesProfileHosts() {
+        List<LinkScanner.Link> links = LinkScanner.scan("github.com/janedoe and linkedin.com/in/jane");
+
+        assertEquals(2, links.size());
+        assertEquals(LinkScanner.TYPE_GITHUB, links.get(0).type);
+        assertEquals("https://github.com/janedoe", links.get(0).url);
+        assertEquals(LinkScanner.TYPE_LINKEDIN, links.get(1).type);
+        assertEquals("https://linkedin.com/in/jane", links.get(1).url);
+    }
+
+    @Test
+    public void scan_ignoresWordsThatOnlyLookLikeAddresses() {
+        assertTrue(LinkScanner.scan("Version 1.2 of notes.txt, e.g. this").isEmpty());
+        assertTrue(LinkScanner.scan("ftp://example.com").isEmpty());
+    }
+
+    @Test
+    public void scan_returnsLinksInOrder() {
+        List<LinkScanner.Link> links = LinkScanner.scan("a.dev b@c.io https://d.org");
+
+        assertEquals(3, links.size());
+        assertTrue(links.get(0).end <= links.get(1).start);
+        assertTrue(links.get(1).end <= links.get(2).start);
+    }
+}
@@ -0,0 +1,36 @@
+package com.passfamily.airesumebuilder.benchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+/**
+ * Records the baseline profile bundled with the app: launch, scrolling the resume list,
+ * opening a resume and downloading its PDF. Run with
+ * ./gradlew :app:generateBaselineProfile
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(Journeys.PACKAGE_NAME, scope -> {
+            Journeys.startAndWaitForList(scope);
+            Journeys.scrollList(scope);
+            Journeys.openFirstResume(scope);
+            Journeys.downloadPdf(scope);
+            scope.getDevice().pressBack();
+            return Unit.INSTANCE;
+        });
+    }
+}
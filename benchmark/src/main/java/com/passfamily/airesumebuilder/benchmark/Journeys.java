@@ -0,0 +1,56 @@
+package com.passfamily.airesumebuilder.benchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+/**
+ * The user journeys the benchmarks and the baseline profile go through. They expect a
+ * signed-in account with a few resumes on the device.
+ */
+final class Journeys {
+    static final String PACKAGE_NAME = "com.passfamily.airesumebuilder";
+
+    private static final long TIMEOUT_MS = 10000;
+
+    private Journeys() {
+    }
+
+    /**
+     * Launch from the home screen and wait for the resume list
+     */
+    static void startAndWaitForList(MacrobenchmarkScope scope) {
+        scope.pressHome();
+        scope.startActivityAndWait();
+        if (!scope.getDevice().wait(Until.hasObject(By.res(PACKAGE_NAME, "resumeRecyclerView")), TIMEOUT_MS)) {
+            throw new IllegalStateException("Resume list not shown; sign in and add a few resumes first");
+        }
+    }
+
+    static void scrollList(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        UiObject2 list = device.findObject(By.res(PACKAGE_NAME, "resumeRecyclerView"));
+        // Keep flings clear of the system gesture areas
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        list.fling(Direction.DOWN);
+        device.waitForIdle();
+        list.fling(Direction.UP);
+        device.waitForIdle();
+    }
+
+    static void openFirstResume(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        device.findObject(By.res(PACKAGE_NAME, "tvResumeName")).click();
+        device.wait(Until.hasObject(By.res(PACKAGE_NAME, "rvGeneratedResume")), TIMEOUT_MS);
+        device.waitForIdle();
+    }
+
+    static void downloadPdf(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        device.findObject(By.res(PACKAGE_NAME, "btnDownload")).click();
+        device.waitForIdle();
+    }
+}
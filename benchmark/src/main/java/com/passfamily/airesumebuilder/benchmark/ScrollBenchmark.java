@@ -0,0 +1,57 @@
+package com.passfamily.airesumebuilder.benchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.Metric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Frame times while flinging through the resume list
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class ScrollBenchmark {
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void scrollNoCompilation() {
+        scroll(new CompilationMode.None());
+    }
+
+    @Test
+    public void scrollBaselineProfile() {
+        scroll(new CompilationMode.Partial(BaselineProfileMode.Require, 0));
+    }
+
+    private void scroll(CompilationMode compilationMode) {
+        benchmarkRule.measureRepeated(
+                Journeys.PACKAGE_NAME,
+                Collections.<Metric>singletonList(new FrameTimingMetric()),
+                compilationMode,
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    Journeys.startAndWaitForList(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    Journeys.scrollList(scope);
+                    return Unit.INSTANCE;
+                });
+    }
+}